@@ -1,7 +1,81 @@
+import java.util.Properties
+
+buildscript {
+    repositories {
+        mavenCentral()
+    }
+    dependencies {
+        // Used at build time only, to write the quest catalog database
+        classpath(libs.sqlite.jdbc)
+    }
+}
+
 plugins {
     alias(libs.plugins.android.application)
 }
 
+// ================= QUEST CATALOG =================
+// Quests are written in catalog/quest_catalog.sql and turned into a SQLite file
+// (assets/quest_catalog.db) at build time. On first run the app copies it into
+// place as its database, so creating the quest rows is a file copy instead of
+// parsing one huge INSERT (DatabaseHelper adds the other tables around them).
+// Bump this whenever quest_catalog.sql changes - installed apps then refresh
+// their quest rows (user progress is kept).
+val questCatalogVersion = 1
+
+abstract class BuildQuestCatalogTask : DefaultTask() {
+
+    @get:InputFile
+    abstract val source: RegularFileProperty
+
+    @get:Input
+    abstract val catalogVersion: Property<Int>
+
+    @get:OutputDirectory
+    abstract val outputDir: DirectoryProperty
+
+    @TaskAction
+    fun build() {
+        val dbFile = outputDir.file("quest_catalog.db").get().asFile
+        dbFile.parentFile.mkdirs()
+        dbFile.delete()
+
+        // Statements end with ';' at the end of a line; '--' lines are comments
+        val statements = source.get().asFile.readText()
+            .split(Regex(";\\s*(\\r?\\n|$)"))
+            .map { statement ->
+                statement.lines()
+                    .filterNot { it.trim().startsWith("--") }
+                    .joinToString("\n")
+                    .trim()
+            }
+            .filter { it.isNotEmpty() }
+
+        org.sqlite.JDBC().connect("jdbc:sqlite:" + dbFile.absolutePath, Properties()).use { connection ->
+            connection.createStatement().use { statement ->
+                for (sql in statements) {
+                    statement.executeUpdate(sql)
+                }
+                // Same table as QuestCatalog.createMetaTable: a seeded database
+                // already holds this catalog version and skips the sync
+                statement.executeUpdate(
+                    "CREATE TABLE catalog_meta (name TEXT PRIMARY KEY, version INTEGER NOT NULL)"
+                )
+                statement.executeUpdate(
+                    "INSERT INTO catalog_meta (name, version) VALUES ('quest', ${catalogVersion.get()})"
+                )
+                // user_version 0: SQLiteOpenHelper runs onCreate on the seeded file
+                statement.executeUpdate("PRAGMA user_version = 0")
+            }
+        }
+    }
+}
+
+val buildQuestCatalog = tasks.register<BuildQuestCatalogTask>("buildQuestCatalog") {
+    source.set(layout.projectDirectory.file("catalog/quest_catalog.sql"))
+    catalogVersion.set(questCatalogVersion)
+}
+
 android {
     namespace = "com.example.virtualcompanion"
     compileSdk {
@@ -16,6 +90,15 @@ android {
         versionName = "1.0"
 
         testInstrumentationRunner = "androidx.test.runner.AndroidJUnitRunner"
+
+        buildConfigField("int", "QUEST_CATALOG_VERSION", questCatalogVersion.toString())
+
+        // true = WAL + mmap + synchronous=NORMAL (see DatabaseHelper.StorageMode)
+        buildConfigField("boolean", "DB_CONCURRENT_STORAGE", "false")
+    }
+
+    buildFeatures {
+        buildConfig = true
     }
 
     buildTypes {
@@ -40,6 +123,12 @@ android {
     }
 }
 
+androidComponents {
+    onVariants { variant ->
+        variant.sources.assets?.addGeneratedSourceDirectory(buildQuestCatalog, BuildQuestCatalogTask::outputDir)
+    }
+}
+
 dependencies {
     implementation(libs.appcompat)
     implementation(libs.material)
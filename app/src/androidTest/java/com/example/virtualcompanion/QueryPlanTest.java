@@ -0,0 +1,139 @@
+package com.example.virtualcompanion;
+
+import android.content.Context;
+import android.database.Cursor;
+import android.database.sqlite.SQLiteDatabase;
+
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+import androidx.test.platform.app.InstrumentationRegistry;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.Assert.*;
+
+/**
+ * Runs EXPLAIN QUERY PLAN for every statement DatabaseManager uses and
+ * fails if one of them scans a whole table or index (missing / unused index).
+ */
+@RunWith(AndroidJUnit4.class)
+public class QueryPlanTest {
+
+    // Statements that scan on purpose
+    private static final Set<String> ALLOWED_SCANS = new HashSet<>(Arrays.asList(
+            // quest_session holds one session (5 rows); quest is joined by primary key
+            DatabaseManager.SQL_LOAD_SESSION,
+            DatabaseManager.SQL_SESSION_PROGRESS,
+            // Reads every quest once to build the samplers
+            DatabaseManager.SQL_LOAD_QUEST_POOL,
+            // All owned / worn items across every type (a few dozen rows)
+            DatabaseManager.SQL_LOAD_OWNED_ITEMS,
+            DatabaseManager.SQL_LOAD_EQUIPPED,
+            DatabaseManager.SQL_UNEQUIP_ALL,
+            // Testing resets that change every row
+            DatabaseManager.SQL_RESET_QUEST_PROGRESS,
+            DatabaseManager.SQL_RESET_ACCESSORIES
+    ));
+
+    private DatabaseHelper helper;
+    private SQLiteDatabase db;
+
+    @Before
+    public void openDatabase() {
+        Context context = InstrumentationRegistry.getInstrumentation().getTargetContext();
+
+        // In-memory database with the current schema
+        helper = new DatabaseHelper(context, null);
+        db = helper.getWritableDatabase();
+    }
+
+    @After
+    public void closeDatabase() {
+        helper.close();
+    }
+
+    @Test
+    public void managerQueriesUseIndexes() {
+        for (String sql : DatabaseManager.QUERIES) {
+            assertNoTableScan(sql);
+        }
+    }
+
+    @Test
+    public void registryStatementsUseIndexes() {
+        for (StatementRegistry.Sql sql : StatementRegistry.Sql.values()) {
+            assertNoTableScan(sql.sql);
+        }
+    }
+
+    @Test
+    public void indexesExist() {
+        for (String index : new String[]{"idx_quest_mood_progress", "idx_mood_date", "idx_accessory_wardrobe",
+                "idx_accessory_item_key"}) {
+            Cursor c = db.rawQuery(
+                    "SELECT COUNT(*) FROM sqlite_master WHERE type='index' AND name=?",
+                    new String[]{index}
+            );
+            assertTrue(c.moveToFirst());
+            assertEquals("Missing index " + index, 1, c.getInt(0));
+            c.close();
+        }
+    }
+
+    // ================= HELPERS =================
+
+    private void assertNoTableScan(String sql) {
+        List<String> plan = explain(sql);
+
+        if (ALLOWED_SCANS.contains(sql)) {
+            return;
+        }
+
+        for (String step : plan) {
+            assertFalse("Table scan: " + sql + "\n  plan: " + plan, isTableScan(step));
+        }
+    }
+
+    /**
+     * "SCAN quest" on newer SQLite, "SCAN TABLE quest" on older. Only SEARCH
+     * steps seek into an index; "SCAN quest USING [COVERING] INDEX idx" still
+     * reads every entry, so it counts as a scan too.
+     */
+    private static boolean isTableScan(String step) {
+        return step.startsWith("SCAN ");
+    }
+
+    private List<String> explain(String sql) {
+        // Values don't change the plan; every parameter gets one
+        String[] args = new String[countParameters(sql)];
+        Arrays.fill(args, "");
+
+        List<String> plan = new ArrayList<>();
+        Cursor c = db.rawQuery("EXPLAIN QUERY PLAN " + sql, args);
+        int detail = c.getColumnIndexOrThrow("detail");
+        while (c.moveToNext()) {
+            plan.add(c.getString(detail));
+        }
+        c.close();
+
+        return plan;
+    }
+
+    private static int countParameters(String sql) {
+        int count = 0;
+        for (int i = 0; i < sql.length(); i++) {
+            if (sql.charAt(i) == '?') {
+                count++;
+            }
+        }
+        return count;
+    }
+}
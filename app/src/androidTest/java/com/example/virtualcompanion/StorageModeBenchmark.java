@@ -0,0 +1,147 @@
+package com.example.virtualcompanion;
+
+import android.content.Context;
+import android.database.Cursor;
+import android.database.sqlite.SQLiteDatabase;
+import android.database.sqlite.SQLiteStatement;
+import android.util.Log;
+
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+import androidx.test.platform.app.InstrumentationRegistry;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.util.Arrays;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.Assert.*;
+
+/**
+ * Compares the two DatabaseHelper storage modes on a real file:
+ * - per-write latency (one coin update per transaction, like addCoins)
+ * - read throughput of several threads while a writer keeps writing
+ *
+ * CONCURRENT must not write slower (synchronous=NORMAL skips the per-commit
+ * fsync) and must serve more reads (WAL readers don't wait for the writer).
+ * Numbers go to logcat (tag StorageModeBenchmark).
+ */
+@RunWith(AndroidJUnit4.class)
+public class StorageModeBenchmark {
+
+    private static final String TAG = "StorageModeBenchmark";
+
+    private static final int WRITES = 300;
+    private static final int READER_THREADS = 3;
+    private static final long READ_WINDOW_MS = 2000;
+
+    @Test
+    public void compareStorageModes() throws Exception {
+        Result rollback = run(DatabaseHelper.StorageMode.ROLLBACK_JOURNAL);
+        Result concurrent = run(DatabaseHelper.StorageMode.CONCURRENT);
+
+        Log.i(TAG, "ROLLBACK_JOURNAL: " + rollback);
+        Log.i(TAG, "CONCURRENT:       " + concurrent);
+
+        assertTrue("CONCURRENT writes slower: " + concurrent + " vs " + rollback,
+                concurrent.writeP50Us <= rollback.writeP50Us);
+        assertTrue("CONCURRENT reads no faster during writes: " + concurrent + " vs " + rollback,
+                concurrent.reads > rollback.reads);
+    }
+
+    @Test
+    public void concurrentModeUsesWal() {
+        Context context = InstrumentationRegistry.getInstrumentation().getTargetContext();
+        String name = "storage_mode_wal_check.db";
+        context.deleteDatabase(name);
+
+        DatabaseHelper helper = new DatabaseHelper(context, name, DatabaseHelper.StorageMode.CONCURRENT);
+        try {
+            Cursor c = helper.getWritableDatabase().rawQuery("PRAGMA journal_mode", null);
+            assertTrue(c.moveToFirst());
+            assertEquals("wal", c.getString(0).toLowerCase());
+            c.close();
+        } finally {
+            helper.close();
+            context.deleteDatabase(name);
+        }
+    }
+
+    // ================= BENCHMARK =================
+
+    private static class Result {
+        long writeP50Us;
+        long writeP95Us;
+        long reads;
+
+        @Override
+        public String toString() {
+            return "write p50=" + writeP50Us + "us p95=" + writeP95Us + "us, "
+                    + "reads during writes=" + (reads * 1000 / READ_WINDOW_MS) + "/s";
+        }
+    }
+
+    private Result run(DatabaseHelper.StorageMode mode) throws Exception {
+        Context context = InstrumentationRegistry.getInstrumentation().getTargetContext();
+        String name = "storage_mode_" + mode.name().toLowerCase() + ".db";
+        context.deleteDatabase(name);
+
+        DatabaseHelper helper = new DatabaseHelper(context, name, mode);
+        try {
+            SQLiteDatabase db = helper.getWritableDatabase();
+            Result result = new Result();
+
+            // ---- Per-write latency ----
+            SQLiteStatement addCoins = db.compileStatement("UPDATE user SET coins = coins + ? WHERE id=1");
+            long[] latencies = new long[WRITES];
+            for (int i = 0; i < WRITES; i++) {
+                long start = System.nanoTime();
+                addCoins.bindLong(1, 1);
+                addCoins.executeUpdateDelete();
+                latencies[i] = (System.nanoTime() - start) / 1000;
+            }
+            Arrays.sort(latencies);
+            result.writeP50Us = latencies[WRITES / 2];
+            result.writeP95Us = latencies[WRITES * 95 / 100];
+
+            // ---- Reads while writing ----
+            AtomicBoolean running = new AtomicBoolean(true);
+            AtomicLong reads = new AtomicLong();
+            CountDownLatch done = new CountDownLatch(READER_THREADS + 1);
+
+            Thread writer = new Thread(() -> {
+                while (running.get()) {
+                    addCoins.bindLong(1, 1);
+                    addCoins.executeUpdateDelete();
+                }
+                done.countDown();
+            });
+            writer.start();
+
+            for (int t = 0; t < READER_THREADS; t++) {
+                new Thread(() -> {
+                    SQLiteStatement getCoins = db.compileStatement("SELECT coins FROM user WHERE id=1");
+                    while (running.get()) {
+                        getCoins.simpleQueryForLong();
+                        reads.incrementAndGet();
+                    }
+                    getCoins.close();
+                    done.countDown();
+                }).start();
+            }
+
+            Thread.sleep(READ_WINDOW_MS);
+            running.set(false);
+            done.await();
+
+            addCoins.close();
+            result.reads = reads.get();
+            return result;
+        } finally {
+            helper.close();
+            context.deleteDatabase(name);
+        }
+    }
+}
@@ -0,0 +1,167 @@
+package com.example.virtualcompanion;
+
+import android.content.Context;
+import android.database.Cursor;
+import android.database.sqlite.SQLiteDatabase;
+import android.database.sqlite.SQLiteStatement;
+
+/**
+ * AccessoryCatalog
+ *
+ * Keeps one accessory row per ItemCatalog item (matched by item_key), so
+ * ownership lives in SQLite next to the coins that pay for it.
+ * - catalog_meta remembers the ItemCatalog version in the database
+ * - sync() does nothing when the version is current (one lookup per open)
+ * - otherwise: update price / type of known items and insert new ones
+ * - free (price 0) items are marked owned; owned / equipped are otherwise
+ *   never touched by a sync
+ * - owned items and the outfit still in KeyValueStore are moved in once
+ */
+final class AccessoryCatalog {
+
+    static final int VERSION = ItemCatalog.VERSION;
+
+    private AccessoryCatalog() {
+    }
+
+    /**
+     * Stable key column + the unique index purchases look items up by
+     */
+    static void addItemKeyColumn(SQLiteDatabase db) {
+        db.execSQL("ALTER TABLE accessory ADD COLUMN item_key TEXT");
+        createItemKeyIndex(db);
+    }
+
+    static void createItemKeyIndex(SQLiteDatabase db) {
+        db.execSQL("CREATE UNIQUE INDEX IF NOT EXISTS idx_accessory_item_key ON accessory (item_key);");
+    }
+
+    /**
+     * Bring the accessory table up to the bundled item catalog
+     */
+    static void sync(Context context, SQLiteDatabase db) {
+        if (getAppliedVersion(db) < VERSION) {
+            syncItems(db);
+        }
+        importKeyValueState(context, db);
+    }
+
+    private static void syncItems(SQLiteDatabase db) {
+        // image is kept for the old schema; item_key is what identifies an item
+        SQLiteStatement update = db.compileStatement(
+                "UPDATE accessory SET image=?, price=?, type=? WHERE item_key=?"
+        );
+        SQLiteStatement insert = db.compileStatement(
+                "INSERT INTO accessory (item_key, image, price, type) VALUES (?,?,?,?)"
+        );
+
+        db.beginTransaction();
+        try {
+            for (int i = 0; i < ItemCatalog.size(); i++) {
+                String key = ItemCatalog.keyAt(i);
+                String type = ItemCatalog.slotAt(i).type;
+
+                update.bindLong(1, ItemCatalog.equipAt(i));
+                update.bindLong(2, ItemCatalog.priceAt(i));
+                update.bindString(3, type);
+                update.bindString(4, key);
+
+                if (update.executeUpdateDelete() == 0) {
+                    insert.bindString(1, key);
+                    insert.bindLong(2, ItemCatalog.equipAt(i));
+                    insert.bindLong(3, ItemCatalog.priceAt(i));
+                    insert.bindString(4, type);
+                    insert.executeInsert();
+                }
+            }
+
+            // Free items are owned from the start
+            db.execSQL("UPDATE accessory SET owned=1 WHERE price=0 AND owned=0");
+
+            db.execSQL(
+                    "INSERT OR REPLACE INTO catalog_meta (name, version) VALUES ('accessory', ?)",
+                    new Object[]{VERSION}
+            );
+
+            db.setTransactionSuccessful();
+        } finally {
+            db.endTransaction();
+            update.close();
+            insert.close();
+        }
+
+        android.util.Log.d("AccessoryCatalog", "Accessory table synced to version " + VERSION);
+    }
+
+    /**
+     * Owned items (bitset, bit i = item i) and equipped item keys were kept
+     * in KeyValueStore before the accessory table held them. Nothing to do
+     * (one map lookup each) once they are moved.
+     */
+    private static void importKeyValueState(Context context, SQLiteDatabase db) {
+        KeyValueStore store = KeyValueStore.get(context);
+
+        long[] owned = store.getLongArray(KeyValueStore.KEY_INVENTORY_OWNED, null);
+        String[] outfitKeys = {
+                KeyValueStore.KEY_OUTFIT_TOP, KeyValueStore.KEY_OUTFIT_BOTTOM,
+                KeyValueStore.KEY_OUTFIT_HAT, KeyValueStore.KEY_OUTFIT_GLASSES
+        };
+
+        boolean hasOutfit = false;
+        for (String key : outfitKeys) {
+            hasOutfit |= store.contains(key);
+        }
+        if (owned == null && !hasOutfit) {
+            return;
+        }
+
+        SQLiteStatement grant = db.compileStatement(
+                "UPDATE accessory SET owned=1 WHERE item_key=?"
+        );
+        SQLiteStatement equip = db.compileStatement(
+                "UPDATE accessory SET owned=1, equipped=1 WHERE item_key=?"
+        );
+
+        db.beginTransaction();
+        try {
+            for (int i = 0; owned != null && i < ItemCatalog.size(); i++) {
+                if ((i >>> 6) < owned.length && (owned[i >>> 6] & (1L << i)) != 0) {
+                    grant.bindString(1, ItemCatalog.keyAt(i));
+                    grant.executeUpdateDelete();
+                }
+            }
+
+            for (String key : outfitKeys) {
+                String itemKey = store.getString(key, null);
+                if (itemKey != null) {
+                    equip.bindString(1, itemKey);
+                    equip.executeUpdateDelete();
+                }
+            }
+
+            db.setTransactionSuccessful();
+        } finally {
+            db.endTransaction();
+            grant.close();
+            equip.close();
+        }
+
+        KeyValueStore.Transaction tx = store.edit().remove(KeyValueStore.KEY_INVENTORY_OWNED);
+        for (String key : outfitKeys) {
+            tx.remove(key);
+        }
+        tx.apply();
+
+        android.util.Log.d("AccessoryCatalog", "Moved owned items and outfit out of KeyValueStore");
+    }
+
+    private static int getAppliedVersion(SQLiteDatabase db) {
+        Cursor c = db.rawQuery("SELECT version FROM catalog_meta WHERE name='accessory'", null);
+        int version = 0;
+        if (c.moveToFirst()) {
+            version = c.getInt(0);
+        }
+        c.close();
+        return version;
+    }
+}
@@ -0,0 +1,304 @@
+package com.example.virtualcompanion;
+
+import android.content.Context;
+import android.content.pm.PackageManager;
+import android.content.res.Resources;
+import android.graphics.Bitmap;
+import android.graphics.BitmapFactory;
+import android.graphics.Canvas;
+import android.graphics.Matrix;
+import android.graphics.Paint;
+import android.graphics.RectF;
+import android.os.Handler;
+import android.os.Looper;
+import android.os.SystemClock;
+import android.util.DisplayMetrics;
+import android.util.Log;
+import android.widget.ImageView;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * AvatarRenderer
+ * Draws the pet - emotion plus everything it wears - as one bitmap, so
+ * pet screens show a single ImageView instead of stacking a layer per slot.
+ *
+ * - The base drawable (emote_<mood>_<b|g>_moodresult) already fixes gender
+ *   and emotion, so (base, outfit) is the whole key
+ * - Layers are drawn like the old stacked views: each fitCenter into the
+ *   same square, in the order bottom, top, glasses, hat
+ * - One square size per device (the screen's short side), so every pet
+ *   screen shares the same composites
+ * - Cached in BitmapCache and as PNGs in cacheDir/avatars (newest
+ *   MAX_DISK_FILES, dropped when the app is reinstalled / updated)
+ * - A new key is only rendered when the outfit or mood changes; until then
+ *   the view keeps showing what it had
+ */
+public final class AvatarRenderer {
+
+    private static final String TAG = "AvatarRenderer";
+
+    private static final String DIR_NAME = "avatars";
+    private static final int MAX_DISK_FILES = 24;
+
+    // One at a time: bounds memory, and renders finish in request order
+    private static final ExecutorService renderer = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "avatar-render");
+        thread.setDaemon(true);
+        thread.setPriority(Thread.NORM_PRIORITY - 1);
+        return thread;
+    });
+
+    private static final Handler mainHandler = new Handler(Looper.getMainLooper());
+
+    // Render thread only
+    private static File diskDir;
+
+    /**
+     * What a view was last asked to show (kept in the view's tag)
+     */
+    private static final class Request {
+        final String key;
+        Future<?> pending;      // null once applied
+
+        Request(String key) {
+            this.key = key;
+        }
+    }
+
+    private AvatarRenderer() {
+    }
+
+    /**
+     * Show the pet `baseResId` wearing `outfit` in `view`.
+     * Main thread only.
+     */
+    public static void render(ImageView view, int baseResId, Outfit outfit) {
+        Context context = view.getContext().getApplicationContext();
+        int size = avatarSize(view.getResources());
+        int[] layers = layers(baseResId, outfit);
+        String key = key(size, layers);
+
+        Request current = (Request) view.getTag(R.id.avatar_renderer_request);
+        // Already showing / rendering it
+        if (current != null && current.key.equals(key)) return;
+        cancel(view);
+
+        Request request = new Request(key);
+        view.setTag(R.id.avatar_renderer_request, request);
+
+        Bitmap cached = BitmapCache.getAvatar(key);
+        if (cached != null) {
+            view.setImageBitmap(cached);
+            return;
+        }
+
+        request.pending = renderer.submit(() -> {
+            Bitmap avatar = load(context, key, size, layers);
+
+            mainHandler.post(() -> {
+                // A newer request took over this view
+                if (view.getTag(R.id.avatar_renderer_request) != request) return;
+
+                request.pending = null;
+                if (avatar != null) {
+                    view.setImageBitmap(avatar);
+                } else {
+                    view.setImageResource(baseResId);
+                }
+            });
+        });
+    }
+
+    /**
+     * Drop any render / decode still pending for `view`, e.g. when its
+     * screen is destroyed. Main thread only.
+     */
+    public static void cancel(ImageView view) {
+        Request current = (Request) view.getTag(R.id.avatar_renderer_request);
+        if (current != null && current.pending != null) {
+            current.pending.cancel(false);
+        }
+        view.setTag(R.id.avatar_renderer_request, null);
+        BitmapLoader.cancel(view);
+    }
+
+    // Bottom to top, as the pet screens used to stack them
+    private static int[] layers(int baseResId, Outfit outfit) {
+        return new int[]{
+                baseResId,
+                outfit.getBottom(),
+                outfit.getTop(),
+                outfit.getGlasses(),
+                outfit.getHat()
+        };
+    }
+
+    private static String key(int size, int[] layers) {
+        StringBuilder key = new StringBuilder().append(size);
+        for (int layer : layers) {
+            key.append('_').append(layer);
+        }
+        return key.toString();
+    }
+
+    private static int avatarSize(Resources res) {
+        DisplayMetrics metrics = res.getDisplayMetrics();
+        return Math.min(metrics.widthPixels, metrics.heightPixels);
+    }
+
+    // ================= RENDER THREAD =================
+
+    /**
+     * From disk if this avatar was drawn before, else compose and save it
+     */
+    private static Bitmap load(Context context, String key, int size, int[] layers) {
+        Resources res = context.getResources();
+        File file = new File(diskDir(context), fileName(res, size, layers));
+
+        Bitmap avatar = null;
+        if (file.isFile()) {
+            avatar = BitmapFactory.decodeFile(file.getPath());
+            if (avatar != null) {
+                file.setLastModified(System.currentTimeMillis());
+            }
+        }
+
+        boolean composed = false;
+        if (avatar == null) {
+            long start = SystemClock.elapsedRealtime();
+            avatar = compose(res, size, layers);
+            if (avatar == null) return null;
+
+            composed = true;
+            Log.d(TAG, "Composed " + file.getName() + " in " + (SystemClock.elapsedRealtime() - start) + "ms");
+        }
+
+        // Exactly `size` px on screen before any view scaling
+        avatar.setDensity(res.getDisplayMetrics().densityDpi);
+        BitmapCache.putAvatar(key, avatar);
+
+        if (composed) {
+            save(avatar, file);
+        }
+        return avatar;
+    }
+
+    private static Bitmap compose(Resources res, int size, int[] layers) {
+        Bitmap avatar;
+        try {
+            avatar = Bitmap.createBitmap(size, size, Bitmap.Config.ARGB_8888);
+        } catch (OutOfMemoryError e) {
+            Log.e(TAG, "Out of memory creating a " + size + "px avatar");
+            BitmapCache.clear();
+            return null;
+        }
+
+        Canvas canvas = new Canvas(avatar);
+        Paint paint = new Paint(Paint.FILTER_BITMAP_FLAG);
+        RectF frame = new RectF(0, 0, size, size);
+        Matrix matrix = new Matrix();
+
+        for (int resId : layers) {
+            if (resId == 0) continue;
+
+            // Shared with BitmapCache - only drawn from, never changed
+            Bitmap layer = BitmapLoader.decode(res, resId, size, size);
+            if (layer == null) {
+                Log.w(TAG, "Layer " + resId + " is not a bitmap, skipped");
+                continue;
+            }
+
+            matrix.setRectToRect(new RectF(0, 0, layer.getWidth(), layer.getHeight()),
+                    frame, Matrix.ScaleToFit.CENTER);
+            canvas.drawBitmap(layer, matrix, paint);
+        }
+        return avatar;
+    }
+
+    // Entry names, not ids: resource ids can change between builds
+    private static String fileName(Resources res, int size, int[] layers) {
+        StringBuilder name = new StringBuilder().append(size);
+        for (int layer : layers) {
+            name.append('-').append(layer != 0 ? res.getResourceEntryName(layer) : "none");
+        }
+        return name.append(".png").toString();
+    }
+
+    private static void save(Bitmap avatar, File file) {
+        File tmp = new File(file.getPath() + ".tmp");
+        try (FileOutputStream out = new FileOutputStream(tmp)) {
+            avatar.compress(Bitmap.CompressFormat.PNG, 100, out);
+            out.getFD().sync();
+        } catch (IOException e) {
+            Log.e(TAG, "Could not save " + file.getName() + ": " + e.getMessage());
+            tmp.delete();
+            return;
+        }
+
+        if (!tmp.renameTo(file)) {
+            tmp.delete();
+            return;
+        }
+        trimDisk(file.getParentFile());
+    }
+
+    /**
+     * cacheDir/avatars/<install time>, created on first use; avatars from
+     * an earlier install are deleted (their artwork may have changed)
+     */
+    private static File diskDir(Context context) {
+        if (diskDir != null) return diskDir;
+
+        long installed;
+        try {
+            installed = context.getPackageManager()
+                    .getPackageInfo(context.getPackageName(), 0).lastUpdateTime;
+        } catch (PackageManager.NameNotFoundException e) {
+            installed = 0;
+        }
+
+        File root = new File(context.getCacheDir(), DIR_NAME);
+        File dir = new File(root, String.valueOf(installed));
+
+        File[] stale = root.listFiles();
+        if (stale != null) {
+            for (File old : stale) {
+                if (!old.equals(dir)) deleteAll(old);
+            }
+        }
+
+        if (!dir.isDirectory() && !dir.mkdirs()) {
+            Log.e(TAG, "Cannot create " + dir);
+        }
+        diskDir = dir;
+        return dir;
+    }
+
+    // Keep the most recently used files
+    private static void trimDisk(File dir) {
+        File[] files = dir.listFiles();
+        if (files == null || files.length <= MAX_DISK_FILES) return;
+
+        Arrays.sort(files, (a, b) -> Long.compare(b.lastModified(), a.lastModified()));
+        for (int i = MAX_DISK_FILES; i < files.length; i++) {
+            files[i].delete();
+        }
+    }
+
+    private static void deleteAll(File file) {
+        File[] children = file.listFiles();
+        if (children != null) {
+            for (File child : children) {
+                deleteAll(child);
+            }
+        }
+        file.delete();
+    }
+}
@@ -1,12 +1,37 @@
 package com.example.virtualcompanion;
 
 import android.os.Bundle;
+import android.widget.ImageView;
 import android.widget.TextView;
 
 import androidx.appcompat.app.AppCompatActivity;
 
 public class BaseActivity extends AppCompatActivity {
 
+    // Keeps title and coin counter in sync while the screen is visible
+    private final DatabaseManager.ProfileListener profileListener = this::onProfileChanged;
+
+    // Profile version this screen last showed (re-read on resume only if the user table changed)
+    private InvalidationTracker.Watch profileWatch;
+
+    @Override
+    public void onContentChanged() {
+        super.onContentChanged();
+
+        // Full-screen background, decoded off the main thread at screen size
+        ImageView background = findViewById(R.id.backgroundImage);
+        if (background != null) {
+            BitmapLoader.load(background, getBackgroundResId());
+        }
+    }
+
+    /**
+     * Art behind this screen (the layout's backgroundImage view)
+     */
+    protected int getBackgroundResId() {
+        return R.drawable.bg_main;
+    }
+
     @Override
     protected void onResume() {
         super.onResume();
@@ -18,19 +43,66 @@ public class BaseActivity extends AppCompatActivity {
             MusicManager.resumeMusic();
         }
 
-        // Apply pet name to title
+        // Apply pet name to title (and coins)
         applyPetNameToTitle();
+
+        DatabaseManager.get(this).addProfileListener(profileListener);
     }
 
     @Override
     protected void onPause() {
         super.onPause();
 
+        DatabaseManager.get(this).removeProfileListener(profileListener);
+
         // Don't pause here - let MainApplication handle it globally
         // This prevents double-pausing
     }
 
+    /**
+     * Name, coins or gender changed somewhere - refresh what this screen shows
+     */
+    protected void onProfileChanged(UserProfile profile) {
+        showPetName(profile.getName());
+
+        TextView coinAmount = findViewById(R.id.coinAmount);
+        if (coinAmount != null) {
+            coinAmount.setText(String.valueOf(profile.getCoins()));
+        }
+    }
+
     private void applyPetNameToTitle() {
+        DatabaseManager db = DatabaseManager.get(this);
+
+        if (profileWatch == null) {
+            profileWatch = db.watchTables(InvalidationTracker.TABLE_USER);
+        }
+
+        // Nothing changed since this screen last showed it
+        if (!profileWatch.isDirty()) return;
+
+        // Load off the main thread (cached after the first load), apply when ready
+        long[] seen = profileWatch.capture();
+        db.getProfileAsync(DatabaseManager.Callback.of(profile -> {
+
+            if (isFinishing() || isDestroyed()) return;
+
+            profileWatch.markClean(seen);
+            onProfileChanged(profile);
+        }, error -> {
+
+            if (isFinishing() || isDestroyed()) return;
+
+            // Could not read the profile - default title and 0 coins (retried on next resume)
+            showPetName(null);
+            TextView coinAmount = findViewById(R.id.coinAmount);
+            if (coinAmount != null) {
+                coinAmount.setText("0");
+            }
+        }));
+    }
+
+    private void showPetName(String name) {
 
         // Keep ECHO in Opening & Settings
         if (this instanceof OpeningActivity ||
@@ -41,9 +113,6 @@ public class BaseActivity extends AppCompatActivity {
         TextView title = findViewById(R.id.appTitle);
         if (title == null) return;
 
-        DatabaseManager db = DatabaseManager.get(this);
-        String name = db.getName();
-
         if (name != null && !name.trim().isEmpty()) {
 
             // FORCE UPPERCASE
@@ -0,0 +1,116 @@
+package com.example.virtualcompanion;
+
+import android.content.ComponentCallbacks2;
+import android.graphics.Bitmap;
+import android.util.Log;
+import android.util.LruCache;
+import android.util.SparseArray;
+
+/**
+ * BitmapCache
+ * Decoded drawables shared by every screen (pet emotions, outfit layers,
+ * emojis, shop cards), so moving between screens reuses pixels.
+ *
+ * - One LRU for the process, sized in bytes (1/8 of the heap)
+ * - Key: resource + sample size. The sample size is what BitmapLoader
+ *   derives from the target size, so views of nearly the same size share
+ *   one bitmap.
+ * - Image bounds are remembered too (a hit needs no I/O at all)
+ * - A second, smaller LRU holds AvatarRenderer's composited pets
+ * - MainApplication trims it by memory level
+ * Cached bitmaps are shared: never recycle or draw into them.
+ */
+final class BitmapCache {
+
+    private static final String TAG = "BitmapCache";
+
+    private static final int MAX_BYTES = (int) Math.min(Runtime.getRuntime().maxMemory() / 8, Integer.MAX_VALUE);
+
+    private static final LruCache<Long, Bitmap> bitmaps = new LruCache<Long, Bitmap>(MAX_BYTES) {
+        @Override
+        protected int sizeOf(Long key, Bitmap bitmap) {
+            return bitmap.getAllocationByteCount();
+        }
+    };
+
+    // Composited pets, keyed by AvatarRenderer
+    private static final LruCache<String, Bitmap> avatars = new LruCache<String, Bitmap>(MAX_BYTES / 2) {
+        @Override
+        protected int sizeOf(String key, Bitmap bitmap) {
+            return bitmap.getAllocationByteCount();
+        }
+    };
+
+    // resId -> {width, height} of the full image; tiny, never trimmed
+    private static final SparseArray<int[]> bounds = new SparseArray<>();
+
+    private BitmapCache() {
+    }
+
+    private static long key(int resId, int sampleSize) {
+        return ((long) resId << 8) | sampleSize;
+    }
+
+    static Bitmap get(int resId, int sampleSize) {
+        return bitmaps.get(key(resId, sampleSize));
+    }
+
+    static void put(int resId, int sampleSize, Bitmap bitmap) {
+        bitmaps.put(key(resId, sampleSize), bitmap);
+    }
+
+    static Bitmap getAvatar(String key) {
+        return avatars.get(key);
+    }
+
+    static void putAvatar(String key, Bitmap bitmap) {
+        avatars.put(key, bitmap);
+    }
+
+    /**
+     * Full-size {width, height} of a drawable, if it has been read before
+     */
+    static int[] getBounds(int resId) {
+        synchronized (bounds) {
+            return bounds.get(resId);
+        }
+    }
+
+    static void putBounds(int resId, int width, int height) {
+        synchronized (bounds) {
+            bounds.put(resId, new int[]{width, height});
+        }
+    }
+
+    /**
+     * Give memory back: everything when the app is about to be killed or
+     * memory is critical, less the lighter the pressure
+     */
+    static void onTrimMemory(int level) {
+        if (level >= ComponentCallbacks2.TRIM_MEMORY_COMPLETE
+                || level == ComponentCallbacks2.TRIM_MEMORY_RUNNING_CRITICAL) {
+            clear();
+            return;
+        }
+
+        int keep;
+        if (level >= ComponentCallbacks2.TRIM_MEMORY_MODERATE) {
+            keep = MAX_BYTES / 4;
+        } else if (level >= ComponentCallbacks2.TRIM_MEMORY_UI_HIDDEN
+                || level == ComponentCallbacks2.TRIM_MEMORY_RUNNING_LOW) {
+            keep = MAX_BYTES / 2;
+        } else {
+            return;
+        }
+
+        bitmaps.trimToSize(keep);
+        avatars.trimToSize(keep / 2);
+        Log.d(TAG, "Trimmed to " + (bitmaps.size() + avatars.size()) / 1024 + "KB (level " + level + ")");
+    }
+
+    static void clear() {
+        bitmaps.evictAll();
+        avatars.evictAll();
+        Log.d(TAG, "Cleared");
+    }
+}
@@ -0,0 +1,211 @@
+package com.example.virtualcompanion;
+
+import android.content.res.Resources;
+import android.graphics.Bitmap;
+import android.graphics.BitmapFactory;
+import android.os.Handler;
+import android.os.Looper;
+import android.util.DisplayMetrics;
+import android.util.Log;
+import android.view.ViewGroup;
+import android.widget.ImageView;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * BitmapLoader
+ * Puts drawable PNGs into ImageViews without decoding them on the main thread.
+ *
+ * - Reads the image bounds first and decodes with the largest power-of-two
+ *   sample size that still covers the view (or the screen, before layout)
+ * - Never scales up: res/drawable PNGs are mdpi, so the platform would
+ *   otherwise inflate them to 2-3x their pixels on dense screens
+ * - The bitmap's density is adjusted so it keeps the drawable's dp size
+ *   (layouts using wrap_content / adjustViewBounds don't change)
+ * - Decodes on a small pool; only the latest request per view is applied
+ * - Decoded bitmaps go into BitmapCache; a cached one is shown at once,
+ *   without a round trip through the pool
+ * - Anything BitmapFactory can't read (vector / shape XML) falls back to
+ *   setImageResource
+ */
+public final class BitmapLoader {
+
+    private static final String TAG = "BitmapLoader";
+
+    private static final int DECODE_THREADS = 2;
+    private static final AtomicInteger THREAD_COUNT = new AtomicInteger();
+
+    private static final ExecutorService decoder = Executors.newFixedThreadPool(DECODE_THREADS, runnable -> {
+        Thread thread = new Thread(runnable, "bitmap-decode-" + THREAD_COUNT.incrementAndGet());
+        thread.setDaemon(true);
+        thread.setPriority(Thread.NORM_PRIORITY - 1);
+        return thread;
+    });
+
+    private static final Handler mainHandler = new Handler(Looper.getMainLooper());
+
+    /**
+     * What a view was last asked to show (kept in the view's tag)
+     */
+    private static final class Request {
+        final int resId;
+        Future<?> pending;      // null once applied
+
+        Request(int resId) {
+            this.resId = resId;
+        }
+    }
+
+    private BitmapLoader() {
+    }
+
+    /**
+     * Show `resId` in `view` once it is decoded; 0 clears the view.
+     * Main thread only.
+     */
+    public static void load(ImageView view, int resId) {
+        Request current = (Request) view.getTag(R.id.bitmap_loader_request);
+        if (current != null) {
+            // Already showing / loading it
+            if (current.resId == resId) return;
+
+            if (current.pending != null) {
+                current.pending.cancel(false);
+            }
+        }
+
+        if (resId == 0) {
+            view.setTag(R.id.bitmap_loader_request, null);
+            view.setImageDrawable(null);
+            return;
+        }
+
+        Request request = new Request(resId);
+        view.setTag(R.id.bitmap_loader_request, request);
+
+        Resources res = view.getResources();
+        int[] size = targetSize(view);
+
+        int[] bounds = BitmapCache.getBounds(resId);
+        if (bounds != null) {
+            if (bounds[0] <= 0) {
+                // Known not to be a bitmap
+                view.setImageResource(resId);
+                return;
+            }
+
+            Bitmap cached = BitmapCache.get(resId, sampleSize(bounds[0], bounds[1], size[0], size[1]));
+            if (cached != null) {
+                view.setImageBitmap(cached);
+                return;
+            }
+        }
+
+        request.pending = decoder.submit(() -> {
+            Bitmap bitmap = decode(res, resId, size[0], size[1]);
+
+            mainHandler.post(() -> {
+                // A newer request took over this view
+                if (view.getTag(R.id.bitmap_loader_request) != request) return;
+
+                request.pending = null;
+                if (bitmap != null) {
+                    view.setImageBitmap(bitmap);
+                } else {
+                    view.setImageResource(resId);
+                }
+            });
+        });
+    }
+
+    /**
+     * Forget any load for `view` without touching what it shows
+     * (something else is about to set its image). Main thread only.
+     */
+    static void cancel(ImageView view) {
+        Request current = (Request) view.getTag(R.id.bitmap_loader_request);
+        if (current == null) return;
+
+        if (current.pending != null) {
+            current.pending.cancel(false);
+        }
+        view.setTag(R.id.bitmap_loader_request, null);
+    }
+
+    /**
+     * Decode a drawable PNG at the smallest power-of-two sample that still
+     * covers reqWidth x reqHeight px (null if it isn't a bitmap). Any thread.
+     * The result may come from BitmapCache and be shared: don't modify it.
+     */
+    static Bitmap decode(Resources res, int resId, int reqWidth, int reqHeight) {
+        BitmapFactory.Options options = new BitmapFactory.Options();
+        options.inScaled = false;
+
+        int[] bounds = BitmapCache.getBounds(resId);
+        if (bounds == null) {
+            options.inJustDecodeBounds = true;
+            BitmapFactory.decodeResource(res, resId, options);
+            bounds = new int[]{Math.max(options.outWidth, 0), Math.max(options.outHeight, 0)};
+            BitmapCache.putBounds(resId, bounds[0], bounds[1]);
+        }
+
+        if (bounds[0] <= 0 || bounds[1] <= 0) {
+            return null;
+        }
+
+        int sampleSize = sampleSize(bounds[0], bounds[1], reqWidth, reqHeight);
+
+        Bitmap bitmap = BitmapCache.get(resId, sampleSize);
+        if (bitmap != null) return bitmap;
+
+        options.inJustDecodeBounds = false;
+        options.inSampleSize = sampleSize;
+        try {
+            bitmap = BitmapFactory.decodeResource(res, resId, options);
+        } catch (OutOfMemoryError e) {
+            Log.e(TAG, "Out of memory decoding " + resId);
+            BitmapCache.clear();
+            return null;
+        }
+        if (bitmap == null) return null;
+
+        // Same dp size as the full-resolution drawable
+        if (sampleSize > 1 && bitmap.getDensity() != Bitmap.DENSITY_NONE) {
+            bitmap.setDensity(bitmap.getDensity() / sampleSize);
+        }
+
+        BitmapCache.put(resId, sampleSize, bitmap);
+        return bitmap;
+    }
+
+    private static int sampleSize(int width, int height, int reqWidth, int reqHeight) {
+        int sampleSize = 1;
+        while (width / (sampleSize * 2) >= reqWidth && height / (sampleSize * 2) >= reqHeight) {
+            sampleSize *= 2;
+        }
+        return sampleSize;
+    }
+
+    /**
+     * The view's size in px - measured, else fixed in its layout params,
+     * else the screen (nothing it shows is bigger)
+     */
+    private static int[] targetSize(ImageView view) {
+        DisplayMetrics metrics = view.getResources().getDisplayMetrics();
+        ViewGroup.LayoutParams params = view.getLayoutParams();
+
+        int width = view.getWidth();
+        int height = view.getHeight();
+
+        if (width <= 0 && params != null && params.width > 0) width = params.width;
+        if (height <= 0 && params != null && params.height > 0) height = params.height;
+
+        if (width <= 0) width = metrics.widthPixels;
+        if (height <= 0) height = metrics.heightPixels;
+
+        return new int[]{width, height};
+    }
+}
@@ -2,7 +2,6 @@ package com.example.virtualcompanion;
 
 import android.content.Intent;
 import android.os.Bundle;
-import android.view.View;
 import android.widget.ImageView;
 import android.widget.LinearLayout;
 import android.widget.TextView;
@@ -12,8 +11,9 @@ import androidx.recyclerview.widget.RecyclerView;
 
 public class CustomTopActivity extends BaseActivity {
 
-    // Layers
-    private ImageView topLayer, bottomLayer, hatLayer, glassesLayer, petDisplay;
+    // Pet (emotion + outfit, one composited bitmap)
+    private ImageView petDisplay;
+    private int petBase;
     private TextView equipButton;
     private TextView coinDisplay;
     
@@ -25,6 +25,17 @@ public class CustomTopActivity extends BaseActivity {
     private int selectedPrice = 0;
     private int moodIndex;
 
+    // Shop list (refreshed when a purchase lands)
+    private ShopItemAdapter adapter;
+
+    // Equipped items (snapshot from OutfitManager, replaced when it changes;
+    // null until the first read lands)
+    private Outfit outfit;
+    private final OutfitManager.OutfitListener outfitListener = this::onOutfitChanged;
+
+    // This category's owned items (null until loaded)
+    private Wardrobe wardrobe;
+
     @Override
     protected void onCreate(Bundle savedInstanceState) {
         super.onCreate(savedInstanceState);
@@ -39,11 +50,6 @@ public class CustomTopActivity extends BaseActivity {
 
         // ================= LAYERS =================
 
-        topLayer = findViewById(R.id.topLayer);
-        bottomLayer = findViewById(R.id.bottomLayer);
-        hatLayer = findViewById(R.id.hatLayer);
-        glassesLayer = findViewById(R.id.glassesLayer);
-
         equipButton = findViewById(R.id.equipButton);
         coinDisplay = findViewById(R.id.coinAmount);
         petDisplay = findViewById(R.id.petDisplay);
@@ -74,7 +80,7 @@ public class CustomTopActivity extends BaseActivity {
                 R.drawable.emote_anxious_b_moodresult
         };
 
-        petDisplay.setImageResource(petEmotions[moodIndex]);
+        petBase = petEmotions[moodIndex];
 
         // ================= RECYCLER =================
 
@@ -92,76 +98,26 @@ public class CustomTopActivity extends BaseActivity {
 
         // ================= SHOP =================
 
-        int[] shopImages = {
-
-                R.drawable.ic_cancel,
-                R.drawable.top_boy_flannel,
-                R.drawable.top_girl_pink,
-                R.drawable.top_boy_quarterzip,
-                R.drawable.top_boy_floral,
-                R.drawable.top_girl_plaid,
-                R.drawable.top_girl_cardigan,
-                R.drawable.top_boy_leather,
-                R.drawable.top_girl_dress,
-                R.drawable.top_boy_tuxedo
-        };
-
-
-        int[] equipImages = {
-
-                0,
-                R.drawable.top_boy_flannel_1,
-                R.drawable.top_girl_pink_1,
-                R.drawable.top_boy_quarterzip_1,
-                R.drawable.top_boy_floral_1,
-                R.drawable.top_girl_plaid_1,
-                R.drawable.top_girl_cardigan_1,
-                R.drawable.top_boy_leather_1,
-                R.drawable.top_girl_dress_1,
-                R.drawable.top_boy_tuxedo_1
-        };
-
-
-        String[] prices = {
-                " ", "0", "0", "150", "0", "0", "150", "200", "250", "250"
-        };
-
-        int[] priceValues = {
-                0, 0, 0, 150, 0, 0, 150, 200, 250, 250
-        };
-
-        // Initialize free items (price = 0)
-        InventoryManager.initDefaults(this, new int[]{
-                R.drawable.top_boy_flannel_1,
-                R.drawable.top_girl_pink_1,
-                R.drawable.top_boy_floral_1,
-                R.drawable.top_girl_plaid_1
-        });
-
+        // Items and prices come from the catalog (built once; free items are
+        // owned from the first database open), the pet's own items first
+        ItemCatalog.Shop shop = ItemCatalog.shop(Outfit.Slot.TOP, gender);
 
         // ================= ADAPTER =================
 
-        ShopItemAdapter adapter =
+        adapter =
                 new ShopItemAdapter(
 
-                        shopImages,
-                        equipImages,
-                        prices,
+                        shop.shopImages,
+                        shop.prices,
 
                         (resId, position) -> {
 
                             // PREVIEW
                             selectedPreview = resId;
-                            selectedPrice = priceValues[position];
-
-                            if (resId == 0) {
-
-                                topLayer.setVisibility(View.GONE);
+                            selectedPrice = shop.priceValues[position];
 
-                            } else {
-
-                                topLayer.setImageResource(resId);
-                                topLayer.setVisibility(View.VISIBLE);
+                            if (outfit != null) {
+                                AvatarRenderer.render(petDisplay, petBase, outfit.with(Outfit.Slot.TOP, resId));
                             }
 
                             updateEquipText();
@@ -184,59 +140,45 @@ public class CustomTopActivity extends BaseActivity {
 
         equipButton.setOnClickListener(v -> {
 
-            int equipped = OutfitManager.getTop(this);
+            // Still loading
+            if (outfit == null || wardrobe == null) return;
+
+            int equipped = outfit.getTop();
 
             // Check if owned
-            if (!InventoryManager.isOwned(this, selectedPreview)) {
-                // PURCHASE
-                try {
-                    int coins = DatabaseManager.get(this).getCoins();
-
-                    if (coins >= selectedPrice) {
-                        DatabaseManager.get(this).addCoins(-selectedPrice);
-                        InventoryManager.addItem(this, selectedPreview);
-                        adapter.notifyDataSetChanged();
-                        updateCoinDisplay();
-                        updateEquipText();
-                        android.widget.Toast.makeText(this, "Purchased!", android.widget.Toast.LENGTH_SHORT).show();
-                    } else {
-                        android.widget.Toast.makeText(this, "Not enough coins!", android.widget.Toast.LENGTH_SHORT).show();
-                    }
-                } catch (Exception e) {
-                    android.widget.Toast.makeText(this, "Error: " + e.getMessage(), android.widget.Toast.LENGTH_SHORT).show();
-                }
+            if (!wardrobe.isOwned(selectedPreview)) {
+                // PURCHASE off the main thread (coins and ownership change in one
+                // transaction; the coin counter follows via BaseActivity's profile listener)
+                DatabaseManager.get(this)
+                        .purchaseAsync(ItemCatalog.keyForEquip(selectedPreview),
+                                DatabaseManager.Callback.of(this::onPurchased, this::onDatabaseError));
                 return;
             }
 
-            // UNEQUIP
+            // UNEQUIP (layers, icons and button follow via onOutfitChanged)
             if (selectedPreview == equipped) {
-                OutfitManager.setTop(this, 0);
-                topLayer.setVisibility(View.GONE);
-                equipButton.setText("Equip");
-                updateCategoryIcons();
+                OutfitManager.setAsync(this, Outfit.Slot.TOP, 0, equipCallback());
                 return;
             }
 
             // EQUIP
-            OutfitManager.setTop(this, selectedPreview);
-            equipButton.setText("Unequip");
-            updateCategoryIcons();
+            OutfitManager.setAsync(this, Outfit.Slot.TOP, selectedPreview, equipCallback());
         });
 
 
         // ================= RESTORE =================
 
         restoreAll();
+        OutfitManager.addListener(outfitListener);
 
-        // Update coin display
-        updateCoinDisplay();
+        // Coin cheat (the amount itself comes from BaseActivity)
+        setupCoinCheat();
 
         // ================= UI =================
 
         setupCategories();
         setupSettings();
         setupBottomNav();
-        updateCategoryIcons();
     }
 
 
@@ -244,51 +186,93 @@ public class CustomTopActivity extends BaseActivity {
 
     private void restoreAll() {
 
-        restoreLayer(topLayer,
-                OutfitManager.getTop(this));
+        // Both read off the main thread; the screen fills in as they land
+        OutfitManager.getAsync(this, DatabaseManager.Callback.of(this::onOutfitChanged, this::onDatabaseError));
+        loadWardrobe();
+    }
 
-        restoreLayer(bottomLayer,
-                OutfitManager.getBottom(this));
 
-        restoreLayer(hatLayer,
-                OutfitManager.getHat(this));
+    private void loadWardrobe() {
+        DatabaseManager.get(this).getWardrobeAsync(Outfit.Slot.TOP,
+                DatabaseManager.Callback.of(this::onWardrobeLoaded, this::onDatabaseError));
+    }
 
-        restoreLayer(glassesLayer,
-                OutfitManager.getGlasses(this));
 
+    private void onWardrobeLoaded(Wardrobe loaded) {
+        if (isDestroyed()) return;
 
-        selectedPreview =
-                OutfitManager.getTop(this);
+        // Start on what is worn; later updates keep the current pick
+        if (wardrobe == null) {
+            selectedPreview = loaded.getEquipped();
+        }
+        wardrobe = loaded;
 
+        adapter.setWardrobe(loaded);
         updateEquipText();
     }
 
 
-    private void restoreLayer(ImageView layer, int resId) {
+    private void showOutfit() {
+        AvatarRenderer.render(petDisplay, petBase, outfit);
+    }
 
-        if (layer == null) return;
 
-        if (resId == 0) {
+    // Equipped from this screen or another one - redraw from the new snapshot
+    private void onOutfitChanged(Outfit changed) {
+        if (isDestroyed()) return;
 
-            layer.setVisibility(View.GONE);
+        outfit = changed;
+        showOutfit();
+        updateCategoryIcons();
+        updateEquipText();
+    }
 
-        } else {
 
-            layer.setImageResource(resId);
-            layer.setVisibility(View.VISIBLE);
+    @Override
+    protected void onDestroy() {
+        super.onDestroy();
+        OutfitManager.removeListener(outfitListener);
+        if (petDisplay != null) {
+            AvatarRenderer.cancel(petDisplay);
         }
     }
 
 
+    private void onPurchased(PurchaseResult result) {
+        if (isDestroyed()) return;
+
+        if (result.isPurchased()) {
+            // Ownership as the purchase transaction left it - no new query
+            onWardrobeLoaded(wardrobe.withOwned(result.getOwnedItems()));
+            SoundEffects.play(SoundEffects.PURCHASE);
+            android.widget.Toast.makeText(this, "Purchased!", android.widget.Toast.LENGTH_SHORT).show();
+        } else if (result.getStatus() == PurchaseResult.Status.NOT_ENOUGH_COINS) {
+            android.widget.Toast.makeText(this, "Not enough coins!", android.widget.Toast.LENGTH_SHORT).show();
+        }
+    }
+
+    // Purchase, equip or load failed
+    private void onDatabaseError(Exception error) {
+        if (isDestroyed()) return;
+
+        android.widget.Toast.makeText(this, "Error: " + error.getMessage(), android.widget.Toast.LENGTH_SHORT).show();
+    }
+
+    // Equip / unequip: the redraw comes through outfitListener
+    private DatabaseManager.Callback<Outfit> equipCallback() {
+        return DatabaseManager.Callback.of(changed -> { }, this::onDatabaseError);
+    }
+
+
     // ================= EQUIP TEXT =================
 
     private void updateEquipText() {
-        if (equipButton == null) return;
+        if (equipButton == null || outfit == null || wardrobe == null) return;
 
-        int equipped = OutfitManager.getTop(this);
+        int equipped = outfit.getTop();
 
         // Check if item is owned
-        if (!InventoryManager.isOwned(this, selectedPreview)) {
+        if (!wardrobe.isOwned(selectedPreview)) {
             equipButton.setText("Buy - " + selectedPrice + " coins");
             return;
         }
@@ -301,19 +285,12 @@ public class CustomTopActivity extends BaseActivity {
         }
     }
 
-    private void updateCoinDisplay() {
+    // Coin text is kept up to date by BaseActivity (refreshed only when coins change)
+    private void setupCoinCheat() {
         if (coinDisplay != null) {
-            try {
-                int coins = DatabaseManager.get(this).getCoins();
-                coinDisplay.setText(String.valueOf(coins));
-            } catch (Exception e) {
-                coinDisplay.setText("150");
-            }
-
             // CHEAT MODE: Long press to add 100 coins
             coinDisplay.setOnLongClickListener(v -> {
                 DatabaseManager.get(this).addCoins(100);
-                updateCoinDisplay();
                 android.widget.Toast.makeText(this, "[DEV] +100 coins added", android.widget.Toast.LENGTH_SHORT).show();
                 return true;
             });
@@ -324,56 +301,22 @@ public class CustomTopActivity extends BaseActivity {
     // ================= CATEGORY ICON UPDATES =================
     
     private void updateCategoryIcons() {
-        updateCategoryIcon(categoryIcon1, OutfitManager.getTop(this));
-        updateCategoryIcon(categoryIcon2, OutfitManager.getBottom(this));
-        updateCategoryIcon(categoryIcon3, OutfitManager.getHat(this));
-        updateCategoryIcon(categoryIcon4, OutfitManager.getGlasses(this));
+        updateCategoryIcon(categoryIcon1, outfit.getTop());
+        updateCategoryIcon(categoryIcon2, outfit.getBottom());
+        updateCategoryIcon(categoryIcon3, outfit.getHat());
+        updateCategoryIcon(categoryIcon4, outfit.getGlasses());
     }
     
     private void updateCategoryIcon(ImageView icon, int equippedResId) {
         if (icon == null) return;
         if (equippedResId == 0) return;
 
-        int shopIcon = getShopIconForEquipped(equippedResId);
+        int shopIcon = ItemCatalog.thumbForEquip(equippedResId);
         if (shopIcon != 0) {
-            icon.setImageResource(shopIcon);
+            BitmapLoader.load(icon, shopIcon);
         }
     }
     
-    private int getShopIconForEquipped(int equippedResId) {
-        // Tops
-        if (equippedResId == R.drawable.top_boy_flannel_1) return R.drawable.top_boy_flannel;
-        if (equippedResId == R.drawable.top_girl_pink_1) return R.drawable.top_girl_pink;
-        if (equippedResId == R.drawable.top_boy_floral_1) return R.drawable.top_boy_floral;
-        if (equippedResId == R.drawable.top_girl_plaid_1) return R.drawable.top_girl_plaid;
-        if (equippedResId == R.drawable.top_boy_quarterzip_1) return R.drawable.top_boy_quarterzip;
-        if (equippedResId == R.drawable.top_girl_cardigan_1) return R.drawable.top_girl_cardigan;
-        if (equippedResId == R.drawable.top_boy_leather_1) return R.drawable.top_boy_leather;
-        if (equippedResId == R.drawable.top_girl_dress_1) return R.drawable.top_girl_dress;
-        if (equippedResId == R.drawable.top_boy_tuxedo_1) return R.drawable.top_boy_tuxedo;
-        
-        // Bottoms
-        if (equippedResId == R.drawable.bottom_girl_flaredpants_1) return R.drawable.bottom_girl_flaredpants;
-        if (equippedResId == R.drawable.bottom_boy_denimpants_1) return R.drawable.bottom_boy_denimpants;
-        if (equippedResId == R.drawable.bottom_girl_skirt_1) return R.drawable.bottom_girl_skirt;
-        if (equippedResId == R.drawable.bottom_boy_blackpants_1) return R.drawable.bottom_boy_blackpants;
-        if (equippedResId == R.drawable.bottom_boy_short_1) return R.drawable.bottom_boy_short;
-        
-        // Hats
-        if (equippedResId == R.drawable.hat_gang_1) return R.drawable.hat_gang;
-        if (equippedResId == R.drawable.hat_flower_1) return R.drawable.hat_flower;
-        if (equippedResId == R.drawable.hat_cowboy_1) return R.drawable.hat_cowboy;
-        if (equippedResId == R.drawable.hat_beach_1) return R.drawable.hat_beach;
-        
-        // Glasses
-        if (equippedResId == R.drawable.glasses_normal_1) return R.drawable.glasses_normal;
-        if (equippedResId == R.drawable.glasses_shades_1) return R.drawable.glasses_shades;
-        if (equippedResId == R.drawable.glasses_maloi_1) return R.drawable.glasses_maloi;
-        if (equippedResId == R.drawable.glasses_heart_1) return R.drawable.glasses_heart;
-        
-        return 0;
-    }
-
 
     // ================= CATEGORIES =================
 
@@ -283,11 +283,11 @@ public class CustomizeActivity extends BaseActivity {
 
         if ("female".equalsIgnoreCase(gender)) {
 
-            petView.setImageResource(R.drawable.emotion_neutral_g);
+            BitmapLoader.load(petView, R.drawable.emotion_neutral_g);
 
         } else {
 
-            petView.setImageResource(R.drawable.emotion_neutral);
+            BitmapLoader.load(petView, R.drawable.emotion_neutral);
         }
     }
 }
\ No newline at end of file
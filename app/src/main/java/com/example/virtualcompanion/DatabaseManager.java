@@ -4,12 +4,28 @@ import android.content.Context;
 import android.content.SharedPreferences;
 import android.database.Cursor;
 import android.database.sqlite.SQLiteDatabase;
+import android.database.sqlite.SQLiteStatement;
+import android.os.Handler;
+import android.os.Looper;
+
+import com.example.virtualcompanion.StatementRegistry.Sql;
 
 import java.text.SimpleDateFormat;
 import java.util.ArrayList;
 import java.util.Date;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Locale;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
 
 /**
  * DatabaseManager
@@ -18,28 +34,192 @@ import java.util.Locale;
  * - Reads from database
  * - Writes to database
  * - Avoids SQL everywhere
+ * - Runs the same work off the main thread (see ASYNC API)
  */
 public class DatabaseManager {
 
     // Singleton instance (only one DB manager)
     private static DatabaseManager instance;
 
-    private static final String PREFS_NAME = "virtual_companion_prefs";
-    private static final String KEY_HAS_CUSTOMIZED = "has_customized";
-    private static final String KEY_CURRENT_QUEST_IDS = "current_quest_ids";
-    private static final String KEY_CURRENT_MOOD = "current_mood";
-    private static final String KEY_USED_QUEST_IDS = "used_quest_ids";
-    private static final String KEY_QUEST_DATE = "quest_date";
-    private static final String KEY_HAPPY_QUEST_DATE = "last_happy_quest_date";
-    private static final String KEY_FIRST_QUEST_COMPLETED = "first_quest_completed_today"; // NEW
+    // Quests picked per session
+    private static final int QUESTS_PER_SESSION = 5;
+
+    // ================= SQL =================
+    // Every statement this class runs (registry statements live in StatementRegistry.Sql).
+    // QueryPlanTest runs EXPLAIN QUERY PLAN on each one - keep QUERIES in sync.
+
+    static final String SQL_LOAD_PROFILE =
+            "SELECT name, coins, pet_gender FROM user WHERE id=1";
+
+    static final String SQL_INSERT_MOOD =
+            "INSERT INTO mood(value,date) VALUES(?,?)";
+
+    // MAX(id) is read from the end of the rowid tree, then one lookup
+    static final String SQL_LATEST_MOOD =
+            "SELECT value FROM mood WHERE id=(SELECT MAX(id) FROM mood)";
+
+    static final String SQL_DELETE_MOODS_FOR_DATE =
+            "DELETE FROM mood WHERE date=?";
+
+    // Current session, in screen order (one JOIN on the quest primary key)
+    static final String SQL_LOAD_SESSION =
+            "SELECT q.id, q.title, q.description, q.reward, q.timer_minutes, q.progress, q.rewarded, " +
+                    "s.mood, s.date " +
+                    "FROM quest_session s JOIN quest q ON q.id = s.quest_id " +
+                    "ORDER BY s.position";
+
+    // Session size + how many of its quests are done
+    static final String SQL_SESSION_PROGRESS =
+            "SELECT COUNT(*), COALESCE(SUM(q.progress >= 100), 0) " +
+                    "FROM quest_session s JOIN quest q ON q.id = s.quest_id";
+
+    static final String SQL_CLEAR_SESSION =
+            "DELETE FROM quest_session";
+
+    static final String SQL_INSERT_SESSION =
+            "INSERT INTO quest_session (position, quest_id, mood, date) VALUES (?,?,?,?)";
+
+    static final String SQL_INSERT_USAGE =
+            "INSERT OR IGNORE INTO quest_usage (date, mood, quest_id) VALUES (?,?,?)";
+
+    // Any day but today (two primary key range searches)
+    static final String SQL_PURGE_OTHER_DAYS_USAGE =
+            "DELETE FROM quest_usage WHERE date<? OR date>?";
+
+    static final String SQL_CLEAR_USAGE_FOR_MOOD =
+            "DELETE FROM quest_usage WHERE date=? AND mood=?";
+
+    static final String SQL_CLEAR_USAGE =
+            "DELETE FROM quest_usage";
+
+    static final String SQL_CLEAR_SESSION_COMPLETIONS =
+            "DELETE FROM session_completion";
+
+    // Every quest ID, read once to build the samplers
+    static final String SQL_LOAD_QUEST_POOL =
+            "SELECT mood, id FROM quest ORDER BY id";
+
+    static final String SQL_LOAD_USAGE_FOR_DATE =
+            "SELECT mood, quest_id FROM quest_usage WHERE date=?";
+
+    static final String SQL_COUNT_COMPLETED_FOR_MOOD =
+            "SELECT COUNT(*) FROM quest WHERE mood=? AND progress>=100";
+
+    static final String SQL_RESET_QUEST_PROGRESS =
+            "UPDATE quest SET progress=0, rewarded=0";
+
+    static final String SQL_RESET_ACCESSORIES =
+            "UPDATE accessory SET owned=(price=0), equipped=0";
+
+    static final String SQL_RESET_ACCESSORY_CATEGORY =
+            "UPDATE accessory SET owned=(price=0), equipped=0 WHERE type=?";
+
+    static final String SQL_LOAD_OWNED_ITEMS =
+            "SELECT item_key FROM accessory WHERE owned=1";
+    static final String SQL_LOAD_EQUIPPED =
+            "SELECT item_key FROM accessory WHERE owned=1 AND equipped=1";
+    static final String SQL_UNEQUIP_ALL =
+            "UPDATE accessory SET equipped=0 WHERE owned=1 AND equipped=1";
+    static final String SQL_LOAD_WARDROBE =
+            "SELECT item_key, owned, equipped FROM accessory WHERE type=?";
+
+    static final String[] QUERIES = {
+            SQL_LOAD_PROFILE,
+            SQL_INSERT_MOOD,
+            SQL_LATEST_MOOD,
+            SQL_DELETE_MOODS_FOR_DATE,
+            SQL_LOAD_SESSION,
+            SQL_SESSION_PROGRESS,
+            SQL_CLEAR_SESSION,
+            SQL_INSERT_SESSION,
+            SQL_INSERT_USAGE,
+            SQL_PURGE_OTHER_DAYS_USAGE,
+            SQL_CLEAR_USAGE_FOR_MOOD,
+            SQL_CLEAR_USAGE,
+            SQL_CLEAR_SESSION_COMPLETIONS,
+            SQL_LOAD_QUEST_POOL,
+            SQL_LOAD_USAGE_FOR_DATE,
+            SQL_COUNT_COMPLETED_FOR_MOOD,
+            SQL_RESET_QUEST_PROGRESS,
+            SQL_RESET_ACCESSORIES,
+            SQL_RESET_ACCESSORY_CATEGORY,
+            SQL_LOAD_OWNED_ITEMS,
+            SQL_LOAD_EQUIPPED,
+            SQL_UNEQUIP_ALL,
+            SQL_LOAD_WARDROBE
+    };
 
     private final DatabaseHelper helper;
     private final Context appContext;
+    private final StatementRegistry statements;
+
+    // Small flags (has customized, first quest of the day) - not worth a table
+    private final KeyValueStore store;
+
+    // Profile cache (see PROFILE CACHE)
+    private final Object profileLock = new Object();
+    private volatile UserProfile profile;
+    private final CopyOnWriteArrayList<ProfileListener> profileListeners = new CopyOnWriteArrayList<>();
+
+    // In-memory quest pickers, one per mood (guarded by samplers)
+    private final Map<String, QuestSampler> samplers = new HashMap<>();
+    private final Random questRandom = new Random();
+    private String samplersDate = "";   // day the samplers' used IDs belong to
+
+    // Which tables / pref keys changed (see INVALIDATION)
+    private final InvalidationTracker invalidation = new InvalidationTracker();
+
+    // Async API threads
+    private final ExecutorService writeExecutor;
+    private final ExecutorService readExecutor;
+    private final Handler mainHandler;
+
+    /**
+     * Receives the result of an async call on the main thread
+     */
+    public interface Callback<T> {
+        void onResult(T result);
+
+        /**
+         * The call threw instead (already logged). Ignored unless overridden.
+         */
+        default void onError(Exception error) {
+        }
+
+        /**
+         * Callback from a result handler and an error handler
+         */
+        static <T> Callback<T> of(Callback<T> onResult, Consumer<Exception> onError) {
+            return new Callback<T>() {
+                @Override
+                public void onResult(T result) {
+                    onResult.onResult(result);
+                }
+
+                @Override
+                public void onError(Exception error) {
+                    onError.accept(error);
+                }
+            };
+        }
+    }
 
     // Private constructor
     private DatabaseManager(Context context) {
         appContext = context.getApplicationContext();
         helper = new DatabaseHelper(appContext);
+        store = KeyValueStore.get(appContext);
+
+        // Precompiled hot queries, released whenever the database closes
+        statements = new StatementRegistry(helper);
+        helper.setOnCloseListener(statements::close);
+
+        writeExecutor = Executors.newSingleThreadExecutor(namedThreads("db-writer"));
+
+        // One reader thread per connection that can read in parallel
+        // (more threads would only wait for a connection)
+        readExecutor = Executors.newFixedThreadPool(helper.getMaxConcurrentReaders(), namedThreads("db-reader"));
+        mainHandler = new Handler(Looper.getMainLooper());
     }
 
     /**
@@ -54,6 +234,55 @@ public class DatabaseManager {
         return instance;
     }
 
+    /**
+     * Close the database (reopens on next use)
+     */
+    public void close() {
+        helper.close();
+    }
+
+    /**
+     * Close and delete the database file (testing reset).
+     * Also drops the profile cache so nothing stale survives.
+     */
+    public boolean deleteDatabase() {
+        synchronized (profileLock) {
+            helper.close();
+            profile = null;
+
+            synchronized (samplers) {
+                samplers.clear();
+            }
+
+            boolean deleted = appContext.deleteDatabase(helper.getDatabaseName());
+            OutfitManager.onOutfitReset();
+            invalidation.invalidateAll();
+            return deleted;
+        }
+    }
+
+    // ================= INVALIDATION =================
+
+    // Screens and managers see writes through these, never through the tracker itself
+
+    /**
+     * Remember the current versions of these tables / pref keys (see Watch.isDirty)
+     */
+    public InvalidationTracker.Watch watchTables(String... names) {
+        return invalidation.watch(names);
+    }
+
+    /**
+     * Be told on the main thread when one of these tables / pref keys changes
+     */
+    public void addTableListener(InvalidationTracker.Observer listener, String... names) {
+        invalidation.addObserver(listener, names);
+    }
+
+    public void removeTableListener(InvalidationTracker.Observer listener) {
+        invalidation.removeObserver(listener);
+    }
+
     // ================= DATE HELPER =================
 
     /**
@@ -64,113 +293,145 @@ public class DatabaseManager {
     }
 
     // ================= USER =================
+    // Name, coins and gender are read from the profile cache (see PROFILE CACHE);
+    // writes go to the database and the cache together.
 
     /**
      * Get current user/pet name
      */
     public String getName() {
-
-        SQLiteDatabase db = helper.getReadableDatabase();
-
-        Cursor c = db.rawQuery(
-                "SELECT name FROM user WHERE id=1",
-                null
-        );
-
-        String name = "";
-
-        if (c.moveToFirst()) {
-            name = c.getString(0);
-        }
-
-        c.close();
-
-        return name;
+        return getProfile().getName();
     }
 
     /**
      * Update user/pet name
      */
     public void setName(String name) {
-
-        SQLiteDatabase db = helper.getWritableDatabase();
-
-        db.execSQL(
-                "UPDATE user SET name=? WHERE id=1",
-                new Object[]{name}
-        );
+        UserProfile updated;
+        synchronized (profileLock) {
+            statements.update(Sql.SET_NAME, name);
+            updated = updateCachedProfile(profile != null ? profile.withName(name) : null);
+        }
+        invalidation.invalidate(InvalidationTracker.TABLE_USER);
+        notifyProfileChanged(updated);
     }
 
     /**
      * Get current coins
      */
     public int getCoins() {
+        return getProfile().getCoins();
+    }
 
-        SQLiteDatabase db = helper.getReadableDatabase();
-
-        Cursor c = db.rawQuery(
-                "SELECT coins FROM user WHERE id=1",
-                null
-        );
+    /**
+     * Add / subtract coins
+     */
+    public void addCoins(int amount) {
+        UserProfile updated;
+        synchronized (profileLock) {
+            statements.update(Sql.ADD_COINS, amount);
+            updated = updateCachedProfile(profile != null ? profile.withCoins(profile.getCoins() + amount) : null);
+        }
+        invalidation.invalidate(InvalidationTracker.TABLE_USER);
+        notifyProfileChanged(updated);
+    }
 
-        int coins = 0;
+    /**
+     * Get pet gender
+     */
+    public String getGender() {
+        return getProfile().getGender();
+    }
 
-        if (c.moveToFirst()) {
-            coins = c.getInt(0);
+    /**
+     * Update pet gender
+     */
+    public void setGender(String gender) {
+        UserProfile updated;
+        synchronized (profileLock) {
+            statements.update(Sql.SET_GENDER, gender);
+            updated = updateCachedProfile(profile != null ? profile.withGender(gender) : null);
         }
+        invalidation.invalidate(InvalidationTracker.TABLE_USER);
+        notifyProfileChanged(updated);
+    }
 
-        c.close();
+    // ================= PROFILE CACHE =================
+    // Loaded once, then kept up to date by setName / addCoins / setGender /
+    // completeQuest, so screens never query the user table again.
+    // Lock order: profileLock first, then the database. Never take
+    // profileLock inside a transaction.
 
-        return coins;
+    /**
+     * Called on the main thread whenever name, coins or gender change
+     */
+    public interface ProfileListener {
+        void onProfileChanged(UserProfile profile);
     }
 
     /**
-     * Add / subtract coins
+     * Current profile (loads it on first call)
      */
-    public void addCoins(int amount) {
+    public UserProfile getProfile() {
+        UserProfile current = profile;
+        if (current != null) {
+            return current;
+        }
 
-        SQLiteDatabase db = helper.getWritableDatabase();
+        synchronized (profileLock) {
+            if (profile == null) {
+                profile = loadProfile();
+            }
+            return profile;
+        }
+    }
+
+    public void addProfileListener(ProfileListener listener) {
+        profileListeners.addIfAbsent(listener);
+    }
 
-        db.execSQL(
-                "UPDATE user SET coins = coins + ? WHERE id=1",
-                new Object[]{amount}
-        );
+    public void removeProfileListener(ProfileListener listener) {
+        profileListeners.remove(listener);
     }
 
     /**
-     * Get pet gender
+     * Read the whole user row in one query
      */
-    public String getGender() {
-
+    private UserProfile loadProfile() {
         SQLiteDatabase db = helper.getReadableDatabase();
 
-        Cursor c = db.rawQuery(
-                "SELECT pet_gender FROM user WHERE id=1",
-                null
-        );
+        Cursor c = db.rawQuery(SQL_LOAD_PROFILE, null);
 
-        String gender = "male";
+        UserProfile loaded = new UserProfile("", 0, "male");
 
         if (c.moveToFirst()) {
-            gender = c.getString(0);
+            loaded = new UserProfile(c.getString(0), c.getInt(1), c.getString(2));
         }
 
         c.close();
 
-        return gender;
+        return loaded;
     }
 
     /**
-     * Update pet gender
+     * Swap in the new profile (null = cache not loaded yet, nothing to update).
+     * Call while holding profileLock.
      */
-    public void setGender(String gender) {
+    private UserProfile updateCachedProfile(UserProfile updated) {
+        if (updated != null) {
+            profile = updated;
+        }
+        return updated;
+    }
 
-        SQLiteDatabase db = helper.getWritableDatabase();
+    private void notifyProfileChanged(UserProfile updated) {
+        if (updated == null || profileListeners.isEmpty()) return;
 
-        db.execSQL(
-                "UPDATE user SET pet_gender=? WHERE id=1",
-                new Object[]{gender}
-        );
+        mainHandler.post(() -> {
+            for (ProfileListener listener : profileListeners) {
+                listener.onProfileChanged(updated);
+            }
+        });
     }
 
     // ================= MOOD =================
@@ -182,35 +443,15 @@ public class DatabaseManager {
 
         SQLiteDatabase db = helper.getWritableDatabase();
 
-        db.execSQL(
-                "INSERT INTO mood(value,date) VALUES(?,?)",
-                new Object[]{value, date}
-        );
+        db.execSQL(SQL_INSERT_MOOD, new Object[]{value, date});
+        invalidation.invalidate(InvalidationTracker.TABLE_MOOD);
     }
 
     /**
      * Check if mood was already selected today
      */
     public boolean hasSelectedMoodToday() {
-
-        SQLiteDatabase db = helper.getReadableDatabase();
-
-        String today = getTodayDate();
-
-        Cursor c = db.rawQuery(
-                "SELECT COUNT(*) FROM mood WHERE date=?",
-                new String[]{today}
-        );
-
-        boolean result = false;
-
-        if (c.moveToFirst()) {
-            result = c.getInt(0) > 0;
-        }
-
-        c.close();
-
-        return result;
+        return statements.queryLong(Sql.COUNT_MOODS_FOR_DATE, 0, getTodayDate()) > 0;
     }
 
     /**
@@ -220,10 +461,7 @@ public class DatabaseManager {
 
         SQLiteDatabase db = helper.getReadableDatabase();
 
-        Cursor c = db.rawQuery(
-                "SELECT value FROM mood ORDER BY id DESC LIMIT 1",
-                null
-        );
+        Cursor c = db.rawQuery(SQL_LATEST_MOOD, null);
 
         int mood = 0; // 0 = neutral
 
@@ -262,10 +500,8 @@ public class DatabaseManager {
 
         String today = getTodayDate();
 
-        db.execSQL(
-                "DELETE FROM mood WHERE date=?",
-                new String[]{today}
-        );
+        db.execSQL(SQL_DELETE_MOODS_FOR_DATE, new String[]{today});
+        invalidation.invalidate(InvalidationTracker.TABLE_MOOD);
     }
 
     // ================= FIRST QUEST COMPLETION TRACKING (PER DAY) =================
@@ -274,22 +510,21 @@ public class DatabaseManager {
      * Check if user completed ANY quest set today (first use done)
      */
     public boolean hasCompletedFirstQuestToday() {
-        SharedPreferences prefs = appContext.getSharedPreferences(PREFS_NAME, Context.MODE_PRIVATE);
-        String lastCompletionDate = prefs.getString(KEY_FIRST_QUEST_COMPLETED, "");
         String today = getTodayDate();
 
-        boolean completed = lastCompletionDate.equals(today);
-        android.util.Log.d("DatabaseManager", "hasCompletedFirstQuestToday: " + completed + " (lastDate=" + lastCompletionDate + ", today=" + today + ")");
+        boolean completed = statements.queryLong(Sql.HAS_SESSION_COMPLETION, 0, today) > 0;
+        android.util.Log.d("DatabaseManager", "hasCompletedFirstQuestToday: " + completed + " (today=" + today + ")");
         return completed;
     }
 
     /**
-     * Mark that first quest set was completed today (any mood)
+     * Mark that first quest set was completed today (any mood).
+     * completeQuest records this itself when it finishes a session.
      */
     public void markFirstQuestCompleted() {
-        SharedPreferences prefs = appContext.getSharedPreferences(PREFS_NAME, Context.MODE_PRIVATE);
         String today = getTodayDate();
-        prefs.edit().putString(KEY_FIRST_QUEST_COMPLETED, today).apply();
+        statements.update(Sql.ADD_SESSION_COMPLETION, today);
+        invalidation.invalidate(InvalidationTracker.TABLE_SESSION_COMPLETION);
         android.util.Log.d("DatabaseManager", "Marked first quest completed for today: " + today);
     }
 
@@ -325,54 +560,33 @@ public class DatabaseManager {
         String moodText = getMoodTextFromIndex(moodIndex);
         String today = getTodayDate();
 
-        SharedPreferences prefs = appContext.getSharedPreferences(PREFS_NAME, Context.MODE_PRIVATE);
-        String savedMood = prefs.getString(KEY_CURRENT_MOOD, "");
-        String savedIds = prefs.getString(KEY_CURRENT_QUEST_IDS, "");
-        String savedDate = prefs.getString(KEY_QUEST_DATE, "");
-
-        // Check if date changed - if so, reset everything
-        if (!savedDate.equals(today)) {
-            android.util.Log.d("DatabaseManager", "New day detected! Resetting quest history.");
-            clearAllQuestHistory();
-            savedMood = "";
-            savedIds = "";
-        }
-
-        // If mood changed or no saved quests, generate new random 5
-        if (!savedMood.equals(moodText) || savedIds.isEmpty()) {
-            // Get previously used quest IDs for this mood TODAY
-            String usedIds = prefs.getString(KEY_USED_QUEST_IDS + "_" + moodText, "");
+        SQLiteDatabase db = helper.getWritableDatabase();
 
-            List<Quest> newQuests = generateRandomQuestsExcluding(moodText, 5, usedIds);
-            saveCurrentQuestSession(moodText, newQuests, today);
+        List<Quest> saved = new ArrayList<>();
+        String[] savedMoodAndDate = {"", ""};
+        loadSession(db, saved, savedMoodAndDate);
 
-            // Add these quest IDs to used history
-            addToUsedQuests(moodText, newQuests);
+        if (!saved.isEmpty()) {
+            // Same day + same mood - keep the session
+            if (savedMoodAndDate[1].equals(today) && savedMoodAndDate[0].equals(moodText)) {
+                return saved;
+            }
 
-            return newQuests;
+            if (!savedMoodAndDate[1].equals(today)) {
+                android.util.Log.d("DatabaseManager", "New day detected! Resetting quest history.");
+            }
         }
 
-        // Load saved quests by IDs
-        return loadQuestsByIds(savedIds, moodText);
+        // Mood changed, new day or no session - pick new random 5
+        return startNewSession(db, moodText, today);
     }
 
     /**
-     * Generate new random quests, excluding previously used ones TODAY
+     * Read the current session (one JOIN).
+     * moodAndDate receives the session's mood and date.
      */
-    private List<Quest> generateRandomQuestsExcluding(String mood, int count, String excludeIds) {
-        SQLiteDatabase db = helper.getReadableDatabase();
-        List<Quest> quests = new ArrayList<>();
-
-        String excludeClause = "";
-        if (!excludeIds.isEmpty()) {
-            excludeClause = " AND id NOT IN (" + excludeIds + ")";
-        }
-
-        Cursor c = db.rawQuery(
-                "SELECT id, title, description, reward, timer_minutes, progress, rewarded " +
-                        "FROM quest WHERE mood=?" + excludeClause + " ORDER BY RANDOM() LIMIT ?",
-                new String[]{mood, String.valueOf(count)}
-        );
+    private void loadSession(SQLiteDatabase db, List<Quest> quests, String[] moodAndDate) {
+        Cursor c = db.rawQuery(SQL_LOAD_SESSION, null);
 
         while (c.moveToNext()) {
             int id = c.getInt(0);
@@ -382,150 +596,200 @@ public class DatabaseManager {
             int timerMinutes = c.getInt(4);
             int progress = c.getInt(5);
             int rewarded = c.getInt(6);
+            String mood = c.getString(7);
 
             Quest quest = new Quest(id, title, description, reward, mood, timerMinutes);
             quest.setProgress(progress);
             quest.setRewarded(rewarded == 1);
 
             quests.add(quest);
-        }
-
-        c.close();
 
-        // If not enough quests available (all have been used today), reset today's history
-        if (quests.size() < count && !excludeIds.isEmpty()) {
-            android.util.Log.d("DatabaseManager", "All quests used today. Resetting history for " + mood);
-            clearUsedQuestsForMood(mood);
-            return generateRandomQuestsExcluding(mood, count, "");
+            moodAndDate[0] = mood;
+            moodAndDate[1] = c.getString(8);
         }
 
-        return quests;
+        c.close();
     }
 
     /**
-     * Load quests by their IDs
+     * Pick new random quests (excluding ones already used TODAY) and save
+     * them as the session + today's usage in ONE transaction.
+     * Picking happens in memory (QuestSampler).
      */
-    private List<Quest> loadQuestsByIds(String ids, String mood) {
-        SQLiteDatabase db = helper.getReadableDatabase();
-        List<Quest> quests = new ArrayList<>();
+    private List<Quest> startNewSession(SQLiteDatabase db, String mood, String today) {
+        int[] ids;
+
+        synchronized (samplers) {
+            // Samplers hold one day's history - rebuild them on a new day
+            if (!samplersDate.equals(today)) {
+                samplers.clear();
+                samplersDate = today;
+            }
 
-        Cursor c = db.rawQuery(
-                "SELECT id, title, description, reward, timer_minutes, progress, rewarded " +
-                        "FROM quest WHERE id IN (" + ids + ") ORDER BY id",
-                null
-        );
+            QuestSampler sampler = getSampler(db, mood, today);
 
-        while (c.moveToNext()) {
-            int id = c.getInt(0);
-            String title = c.getString(1);
-            String description = c.getString(2);
-            int reward = c.getInt(3);
-            int timerMinutes = c.getInt(4);
-            int progress = c.getInt(5);
-            int rewarded = c.getInt(6);
+            // If not enough quests left (all used today), reset today's history
+            boolean historyReset = false;
+            if (sampler.getRemainingCount() < QUESTS_PER_SESSION) {
+                android.util.Log.d("DatabaseManager", "All quests used today. Resetting history for " + mood);
+                sampler.reset();
+                historyReset = true;
+            }
 
-            Quest quest = new Quest(id, title, description, reward, mood, timerMinutes);
-            quest.setProgress(progress);
-            quest.setRewarded(rewarded == 1);
+            ids = sampler.draw(QUESTS_PER_SESSION);
 
-            quests.add(quest);
+            boolean saved = false;
+            db.beginTransaction();
+            try {
+                db.execSQL(SQL_CLEAR_SESSION);
+
+                // Usage only matters for today
+                db.execSQL(SQL_PURGE_OTHER_DAYS_USAGE, new Object[]{today, today});
+                if (historyReset) {
+                    db.execSQL(SQL_CLEAR_USAGE_FOR_MOOD, new Object[]{today, mood});
+                }
+
+                SQLiteStatement insertSession = db.compileStatement(SQL_INSERT_SESSION);
+                SQLiteStatement insertUsage = db.compileStatement(SQL_INSERT_USAGE);
+                try {
+                    for (int i = 0; i < ids.length; i++) {
+                        insertSession.bindLong(1, i);
+                        insertSession.bindLong(2, ids[i]);
+                        insertSession.bindString(3, mood);
+                        insertSession.bindString(4, today);
+                        insertSession.executeInsert();
+
+                        insertUsage.bindString(1, today);
+                        insertUsage.bindString(2, mood);
+                        insertUsage.bindLong(3, ids[i]);
+                        insertUsage.executeInsert();
+                    }
+                } finally {
+                    insertSession.close();
+                    insertUsage.close();
+                }
+
+                db.setTransactionSuccessful();
+                saved = true;
+            } finally {
+                db.endTransaction();
+
+                // Picks were rolled back - reload the samplers from the tables next time
+                if (!saved) {
+                    samplers.clear();
+                }
+            }
         }
 
-        c.close();
+        invalidation.invalidate(InvalidationTracker.TABLE_QUEST_SESSION, InvalidationTracker.TABLE_QUEST_USAGE);
+
+        android.util.Log.d("DatabaseManager", "Saved quest session: mood=" + mood
+                + ", " + ids.length + " quests, date=" + today);
+
+        List<Quest> quests = new ArrayList<>();
+        loadSession(db, quests, new String[2]);
         return quests;
     }
 
     /**
-     * Save current quest session WITH DATE
+     * Sampler for a mood. First call reads every quest ID once (one query for
+     * all moods) and restores today's used IDs from quest_usage.
+     * Call while holding samplers.
      */
-    private void saveCurrentQuestSession(String mood, List<Quest> quests, String date) {
-        StringBuilder ids = new StringBuilder();
-        for (int i = 0; i < quests.size(); i++) {
-            ids.append(quests.get(i).getId());
-            if (i < quests.size() - 1) {
-                ids.append(",");
+    private QuestSampler getSampler(SQLiteDatabase db, String mood, String today) {
+        if (samplers.isEmpty()) {
+            Map<String, List<Integer>> idsByMood = readIdsByMood(db, SQL_LOAD_QUEST_POOL, null);
+            Map<String, List<Integer>> usedByMood = readIdsByMood(db, SQL_LOAD_USAGE_FOR_DATE, new String[]{today});
+
+            for (Map.Entry<String, List<Integer>> entry : idsByMood.entrySet()) {
+                QuestSampler sampler = new QuestSampler(toArray(entry.getValue()), questRandom);
+
+                List<Integer> used = usedByMood.get(entry.getKey());
+                if (used != null) {
+                    sampler.restoreUsed(toArray(used));
+                }
+
+                samplers.put(entry.getKey(), sampler);
             }
         }
 
-        SharedPreferences prefs = appContext.getSharedPreferences(PREFS_NAME, Context.MODE_PRIVATE);
-        prefs.edit()
-                .putString(KEY_CURRENT_MOOD, mood)
-                .putString(KEY_CURRENT_QUEST_IDS, ids.toString())
-                .putString(KEY_QUEST_DATE, date)
-                .apply();
-
-        android.util.Log.d("DatabaseManager", "Saved quest session: mood=" + mood + ", ids=" + ids.toString() + ", date=" + date);
+        QuestSampler sampler = samplers.get(mood);
+        if (sampler == null) {
+            // No quests for this mood
+            sampler = new QuestSampler(new int[0], questRandom);
+            samplers.put(mood, sampler);
+        }
+        return sampler;
     }
 
     /**
-     * Add quest IDs to used history for a mood TODAY
+     * Group (mood, id) rows by mood
      */
-    private void addToUsedQuests(String mood, List<Quest> quests) {
-        SharedPreferences prefs = appContext.getSharedPreferences(PREFS_NAME, Context.MODE_PRIVATE);
-        String key = KEY_USED_QUEST_IDS + "_" + mood;
-        String existingIds = prefs.getString(key, "");
+    private static Map<String, List<Integer>> readIdsByMood(SQLiteDatabase db, String sql, String[] args) {
+        Map<String, List<Integer>> idsByMood = new HashMap<>();
 
-        StringBuilder newIds = new StringBuilder(existingIds);
-        for (Quest quest : quests) {
-            if (newIds.length() > 0) {
-                newIds.append(",");
+        Cursor c = db.rawQuery(sql, args);
+        while (c.moveToNext()) {
+            List<Integer> ids = idsByMood.get(c.getString(0));
+            if (ids == null) {
+                ids = new ArrayList<>();
+                idsByMood.put(c.getString(0), ids);
             }
-            newIds.append(quest.getId());
+            ids.add(c.getInt(1));
         }
+        c.close();
 
-        prefs.edit().putString(key, newIds.toString()).apply();
-        android.util.Log.d("DatabaseManager", "Added to used quests for " + mood + " today: " + newIds.toString());
+        return idsByMood;
     }
 
-    /**
-     * Clear used quests for a specific mood
-     */
-    private void clearUsedQuestsForMood(String mood) {
-        SharedPreferences prefs = appContext.getSharedPreferences(PREFS_NAME, Context.MODE_PRIVATE);
-        String key = KEY_USED_QUEST_IDS + "_" + mood;
-        prefs.edit().remove(key).apply();
-        android.util.Log.d("DatabaseManager", "Cleared used quest history for " + mood);
+    private static int[] toArray(List<Integer> list) {
+        int[] array = new int[list.size()];
+        for (int i = 0; i < array.length; i++) {
+            array[i] = list.get(i);
+        }
+        return array;
     }
 
     /**
      * Clear current quest session (call after completing all 5)
      */
     public void clearCurrentQuestSession() {
-        SharedPreferences prefs = appContext.getSharedPreferences(PREFS_NAME, Context.MODE_PRIVATE);
-        prefs.edit()
-                .remove(KEY_CURRENT_MOOD)
-                .remove(KEY_CURRENT_QUEST_IDS)
-                .apply();
+        helper.getWritableDatabase().execSQL(SQL_CLEAR_SESSION);
+        invalidation.invalidate(InvalidationTracker.TABLE_QUEST_SESSION);
 
         android.util.Log.d("DatabaseManager", "Cleared quest session");
     }
 
     /**
-     * Clear ALL quest history (called on new day or reset)
+     * Clear ALL quest history (called on reset)
      */
     public void clearAllQuestHistory() {
-        SharedPreferences prefs = appContext.getSharedPreferences(PREFS_NAME, Context.MODE_PRIVATE);
-        SharedPreferences.Editor editor = prefs.edit();
+        SQLiteDatabase db = helper.getWritableDatabase();
 
-        // Clear used quest IDs for all moods
-        editor.remove(KEY_USED_QUEST_IDS + "_neutral");
-        editor.remove(KEY_USED_QUEST_IDS + "_happy");
-        editor.remove(KEY_USED_QUEST_IDS + "_sad");
-        editor.remove(KEY_USED_QUEST_IDS + "_angry");
-        editor.remove(KEY_USED_QUEST_IDS + "_anxious");
+        synchronized (samplers) {
+            db.beginTransaction();
+            try {
+                // Clear used quest IDs for all moods + current session
+                db.execSQL(SQL_CLEAR_USAGE);
+                db.execSQL(SQL_CLEAR_SESSION);
+                // Clear first quest completion flag (reset daily)
+                db.execSQL(SQL_CLEAR_SESSION_COMPLETIONS);
+                db.setTransactionSuccessful();
+            } finally {
+                db.endTransaction();
+            }
 
-        // Clear current session
-        editor.remove(KEY_CURRENT_MOOD);
-        editor.remove(KEY_CURRENT_QUEST_IDS);
-        editor.remove(KEY_QUEST_DATE);
+            samplers.clear();
+        }
 
-        // Clear happy quest date (reset daily) - LEGACY
-        editor.remove(KEY_HAPPY_QUEST_DATE);
+        store.edit()
+                // Clear happy quest date (reset daily) - LEGACY
+                .remove(KeyValueStore.KEY_HAPPY_QUEST_DATE)
+                .apply();
 
-        // Clear first quest completion flag (reset daily)
-        editor.remove(KEY_FIRST_QUEST_COMPLETED);
+        invalidation.invalidate(InvalidationTracker.TABLE_QUEST_SESSION, InvalidationTracker.TABLE_QUEST_USAGE,
+                InvalidationTracker.TABLE_SESSION_COMPLETION);
 
-        editor.apply();
         android.util.Log.d("DatabaseManager", "Cleared all quest history");
     }
 
@@ -533,37 +797,91 @@ public class DatabaseManager {
      * Check if all current quests are complete
      */
     public boolean areAllCurrentQuestsComplete() {
-        SharedPreferences prefs = appContext.getSharedPreferences(PREFS_NAME, Context.MODE_PRIVATE);
-        String savedIds = prefs.getString(KEY_CURRENT_QUEST_IDS, "");
-
-        if (savedIds.isEmpty()) {
-            return false;
-        }
-
-        SQLiteDatabase db = helper.getReadableDatabase();
+        return isSessionComplete(helper.getReadableDatabase());
+    }
 
-        Cursor c = db.rawQuery(
-                "SELECT COUNT(*) FROM quest WHERE id IN (" + savedIds + ") AND progress >= 100",
-                null
-        );
+    /**
+     * Check the current session on the given connection (one JOIN).
+     * An empty session is not complete.
+     */
+    private boolean isSessionComplete(SQLiteDatabase db) {
+        Cursor c = db.rawQuery(SQL_SESSION_PROGRESS, null);
 
+        int totalCount = 0;
         int completedCount = 0;
         if (c.moveToFirst()) {
-            completedCount = c.getInt(0);
+            totalCount = c.getInt(0);
+            completedCount = c.getInt(1);
         }
         c.close();
 
-        // Count total quests in session
-        String[] idArray = savedIds.split(",");
-        int totalCount = idArray.length;
+        return totalCount > 0 && completedCount == totalCount;
+    }
+
+    // ================= QUEST COMPLETION =================
 
-        return completedCount == totalCount;
+    /**
+     * Complete a quest in ONE transaction:
+     * - progress = 100
+     * - reward paid only once (calling again pays nothing)
+     * - returns new balance + whether the whole session is done
+     * - a finished session is cleared and recorded for today
+     *   (hasCompletedFirstQuestToday) in the same transaction
+     */
+    public QuestCompletion completeQuest(int questId) {
+        SQLiteDatabase db = helper.getWritableDatabase();
+
+        int coinsAwarded = 0;
+        int newBalance = 0;
+        boolean sessionComplete = false;
+        boolean firstSessionToday = false;
+        UserProfile updated;
+
+        synchronized (profileLock) {
+            db.beginTransaction();
+            try {
+                statements.update(Sql.SET_QUEST_PROGRESS, 100, questId);
+
+                // Flip rewarded 0 -> 1; only the call that flips it gets paid
+                if (statements.update(Sql.MARK_QUEST_REWARDED, questId) == 1) {
+                    coinsAwarded = (int) statements.queryLong(Sql.GET_QUEST_REWARD, 0, questId);
+                    statements.update(Sql.ADD_COINS, coinsAwarded);
+                }
+
+                newBalance = (int) statements.queryLong(Sql.GET_COINS, 0);
+
+                sessionComplete = isSessionComplete(db);
+                if (sessionComplete) {
+                    db.execSQL(SQL_CLEAR_SESSION);
+                    firstSessionToday = statements.update(Sql.ADD_SESSION_COMPLETION, getTodayDate()) == 1;
+                }
+
+                db.setTransactionSuccessful();
+            } finally {
+                db.endTransaction();
+            }
+
+            updated = updateCachedProfile(profile != null ? profile.withCoins(newBalance) : null);
+        }
+
+        if (sessionComplete) {
+            invalidation.invalidate(InvalidationTracker.TABLE_QUEST, InvalidationTracker.TABLE_USER,
+                    InvalidationTracker.TABLE_QUEST_SESSION, InvalidationTracker.TABLE_SESSION_COMPLETION);
+        } else {
+            invalidation.invalidate(InvalidationTracker.TABLE_QUEST, InvalidationTracker.TABLE_USER);
+        }
+        notifyProfileChanged(updated);
+
+        android.util.Log.d("DatabaseManager", "Completed quest " + questId + ": +" + coinsAwarded
+                + " coins, balance=" + newBalance + ", sessionComplete=" + sessionComplete);
+
+        return new QuestCompletion(questId, coinsAwarded, newBalance, sessionComplete, firstSessionToday);
     }
 
     /**
      * Convert mood index to text
      */
-    private String getMoodTextFromIndex(int index) {
+    static String getMoodTextFromIndex(int index) {
         switch (index) {
             case 0: return "neutral";
             case 1: return "happy";
@@ -578,72 +896,30 @@ public class DatabaseManager {
      * Get progress of a specific quest
      */
     public int getQuestProgress(int questId) {
-
-        SQLiteDatabase db = helper.getReadableDatabase();
-
-        Cursor c = db.rawQuery(
-                "SELECT progress FROM quest WHERE id=?",
-                new String[]{String.valueOf(questId)}
-        );
-
-        int progress = 0;
-
-        if (c.moveToFirst()) {
-            progress = c.getInt(0);
-        }
-
-        c.close();
-
-        return progress;
+        return (int) statements.queryLong(Sql.GET_QUEST_PROGRESS, 0, questId);
     }
 
     /**
      * Update quest progress
      */
     public void updateQuestProgress(int questId, int progress) {
-
-        SQLiteDatabase db = helper.getWritableDatabase();
-
-        db.execSQL(
-                "UPDATE quest SET progress=? WHERE id=?",
-                new Object[]{progress, questId}
-        );
+        statements.update(Sql.SET_QUEST_PROGRESS, progress, questId);
+        invalidation.invalidate(InvalidationTracker.TABLE_QUEST);
     }
 
     /**
      * Check if quest is rewarded
      */
     public boolean isQuestRewarded(int questId) {
-
-        SQLiteDatabase db = helper.getReadableDatabase();
-
-        Cursor c = db.rawQuery(
-                "SELECT rewarded FROM quest WHERE id=?",
-                new String[]{String.valueOf(questId)}
-        );
-
-        boolean rewarded = false;
-
-        if (c.moveToFirst()) {
-            rewarded = c.getInt(0) == 1;
-        }
-
-        c.close();
-
-        return rewarded;
+        return statements.queryLong(Sql.IS_QUEST_REWARDED, 0, questId) == 1;
     }
 
     /**
      * Mark quest as rewarded
      */
     public void markQuestRewarded(int questId) {
-
-        SQLiteDatabase db = helper.getWritableDatabase();
-
-        db.execSQL(
-                "UPDATE quest SET rewarded=1 WHERE id=?",
-                new Object[]{questId}
-        );
+        statements.update(Sql.MARK_QUEST_REWARDED, questId);
+        invalidation.invalidate(InvalidationTracker.TABLE_QUEST);
     }
 
     /**
@@ -653,10 +929,7 @@ public class DatabaseManager {
 
         SQLiteDatabase db = helper.getReadableDatabase();
 
-        Cursor c = db.rawQuery(
-                "SELECT COUNT(*) FROM quest WHERE mood=? AND progress>=100",
-                new String[]{mood}
-        );
+        Cursor c = db.rawQuery(SQL_COUNT_COMPLETED_FOR_MOOD, new String[]{mood});
 
         int count = 0;
 
@@ -673,8 +946,8 @@ public class DatabaseManager {
      * Get total quest count for a mood (currently selected 5)
      */
     public int getTotalQuestCountForMood(String mood) {
-        // Return 5 because we always select exactly 5 quests per cycle
-        return 5;
+        // We always select exactly 5 quests per cycle
+        return QUESTS_PER_SESSION;
     }
 
     /**
@@ -684,7 +957,8 @@ public class DatabaseManager {
 
         SQLiteDatabase db = helper.getWritableDatabase();
 
-        db.execSQL("UPDATE quest SET progress=0, rewarded=0");
+        db.execSQL(SQL_RESET_QUEST_PROGRESS);
+        invalidation.invalidate(InvalidationTracker.TABLE_QUEST);
     }
 
     // ================= CUSTOMIZATION =================
@@ -693,41 +967,187 @@ public class DatabaseManager {
      * Check if user has customized their pet
      */
     public boolean hasCustomized() {
-
-        SharedPreferences prefs = appContext.getSharedPreferences(
-                PREFS_NAME,
-                Context.MODE_PRIVATE
-        );
-
-        return prefs.getBoolean(KEY_HAS_CUSTOMIZED, false);
+        return store.getBoolean(KeyValueStore.KEY_HAS_CUSTOMIZED, false);
     }
 
     /**
      * Mark user as having customized
      */
     public void setHasCustomized(boolean hasCustomized) {
+        store.edit()
+                .putBoolean(KeyValueStore.KEY_HAS_CUSTOMIZED, hasCustomized)
+                .apply();
+        invalidation.invalidate(InvalidationTracker.PREF_HAS_CUSTOMIZED);
+    }
 
-        SharedPreferences prefs = appContext.getSharedPreferences(
-                PREFS_NAME,
-                Context.MODE_PRIVATE
-        );
+    // ================= SHOP & WARDROBE =================
+    // Owned and equipped items live in the accessory table (one row per
+    // ItemCatalog item), so a purchase changes coins and ownership in the
+    // same transaction. Screens read ownership per category (Wardrobe);
+    // OutfitManager keeps the equipped outfit in memory.
 
-        prefs.edit()
-                .putBoolean(KEY_HAS_CUSTOMIZED, hasCustomized)
-                .apply();
+    /**
+     * Equipped outfit (one row per worn item)
+     */
+    public Outfit getEquippedOutfit() {
+        SQLiteDatabase db = helper.getReadableDatabase();
+
+        Outfit equipped = Outfit.EMPTY;
+
+        Cursor c = db.rawQuery(SQL_LOAD_EQUIPPED, null);
+        try {
+            while (c.moveToNext()) {
+                int index = ItemCatalog.indexOfKey(c.getString(0));
+                if (index >= 0) {
+                    equipped = equipped.with(ItemCatalog.slotAt(index), ItemCatalog.equipAt(index));
+                }
+            }
+        } finally {
+            c.close();
+        }
+
+        return equipped;
+    }
+
+    /**
+     * One category's owned items and worn item, in one query
+     */
+    public Wardrobe getWardrobe(Outfit.Slot slot) {
+        SQLiteDatabase db = helper.getReadableDatabase();
+
+        long[] owned = new long[(ItemCatalog.size() + 63) / 64];
+        int equipped = 0;
+
+        Cursor c = db.rawQuery(SQL_LOAD_WARDROBE, new String[]{slot.type});
+        try {
+            while (c.moveToNext()) {
+                int index = ItemCatalog.indexOfKey(c.getString(0));
+                if (index < 0) continue;
+
+                if (c.getInt(1) == 1) {
+                    owned[index >>> 6] |= 1L << index;
+                }
+                if (c.getInt(2) == 1) {
+                    equipped = ItemCatalog.equipAt(index);
+                }
+            }
+        } finally {
+            c.close();
+        }
+
+        return new Wardrobe(slot, owned, equipped);
+    }
+
+    /**
+     * Equip an owned item in its slot, or empty the slot (itemKey null).
+     * Returns false if nothing changed (e.g. the item isn't owned).
+     */
+    public boolean equip(Outfit.Slot slot, String itemKey) {
+        int changed = itemKey != null
+                ? statements.update(Sql.EQUIP_ITEM, itemKey, slot.type, itemKey)
+                : statements.update(Sql.UNEQUIP_SLOT, slot.type);
+
+        if (changed > 0) {
+            invalidation.invalidate(InvalidationTracker.TABLE_ACCESSORY);
+        }
+        return changed > 0;
+    }
+
+    /**
+     * Take everything off (items stay owned)
+     */
+    public void unequipAll() {
+        helper.getWritableDatabase().execSQL(SQL_UNEQUIP_ALL);
+        invalidation.invalidate(InvalidationTracker.TABLE_ACCESSORY);
+    }
+
+    /**
+     * Buy an item:
+     * - checks it exists, isn't owned yet and the balance covers it
+     * - takes the coins and marks it owned in ONE transaction
+     * - returns the new balance + owned items (nothing to re-read)
+     */
+    public PurchaseResult purchase(String itemKey) {
+        SQLiteDatabase db = helper.getWritableDatabase();
+
+        PurchaseResult.Status status;
+        int price;
+        int newBalance;
+        long[] owned;
+        UserProfile updated = null;
+
+        synchronized (profileLock) {
+            db.beginTransaction();
+            try {
+                price = (int) statements.queryLong(Sql.GET_ITEM_PRICE, -1, itemKey);
+                newBalance = (int) statements.queryLong(Sql.GET_COINS, 0);
+
+                if (price < 0) {
+                    status = PurchaseResult.Status.UNKNOWN_ITEM;
+                } else if (statements.queryLong(Sql.IS_ITEM_OWNED, 0, itemKey) == 1) {
+                    status = PurchaseResult.Status.ALREADY_OWNED;
+                } else if (newBalance < price) {
+                    status = PurchaseResult.Status.NOT_ENOUGH_COINS;
+                } else {
+                    statements.update(Sql.ADD_COINS, -price);
+                    statements.update(Sql.GRANT_ITEM, itemKey);
+                    newBalance -= price;
+                    status = PurchaseResult.Status.PURCHASED;
+                }
+
+                owned = loadOwnedItems(db);
+                db.setTransactionSuccessful();
+            } finally {
+                db.endTransaction();
+            }
+
+            if (status == PurchaseResult.Status.PURCHASED) {
+                updated = updateCachedProfile(profile != null ? profile.withCoins(newBalance) : null);
+            }
+        }
+
+        if (status == PurchaseResult.Status.PURCHASED) {
+            invalidation.invalidate(InvalidationTracker.TABLE_USER, InvalidationTracker.TABLE_ACCESSORY);
+            notifyProfileChanged(updated);
+        }
+
+        android.util.Log.d("DatabaseManager", "Purchase " + itemKey + ": " + status
+                + " (price=" + price + ", balance=" + newBalance + ")");
+
+        return new PurchaseResult(status, newBalance, owned);
+    }
+
+    private long[] loadOwnedItems(SQLiteDatabase db) {
+        long[] owned = new long[(ItemCatalog.size() + 63) / 64];
+
+        Cursor c = db.rawQuery(SQL_LOAD_OWNED_ITEMS, null);
+        try {
+            while (c.moveToNext()) {
+                int index = ItemCatalog.indexOfKey(c.getString(0));
+                if (index >= 0) {
+                    owned[index >>> 6] |= 1L << index;
+                }
+            }
+        } finally {
+            c.close();
+        }
+
+        return owned;
     }
 
     // ================= ACCESSORY RESET =================
 
     /**
-     * Reset all accessories to unowned and unequipped (for testing)
+     * Reset all accessories to unowned (free ones stay owned) and unequipped (for testing)
      */
     public void resetAllAccessories() {
         try {
             SQLiteDatabase db = helper.getWritableDatabase();
 
-            // Reset all accessories to not owned and not equipped
-            db.execSQL("UPDATE accessory SET owned=0, equipped=0");
+            // Reset all accessories to not owned (except free ones) and not equipped
+            db.execSQL(SQL_RESET_ACCESSORIES);
+            OutfitManager.onOutfitReset();
+            invalidation.invalidate(InvalidationTracker.TABLE_ACCESSORY);
         } catch (Exception e) {
             // Table doesn't exist yet, ignore
             android.util.Log.d("DatabaseManager", "Accessory table not found: " + e.getMessage());
@@ -741,47 +1161,36 @@ public class DatabaseManager {
         try {
             SQLiteDatabase db = helper.getWritableDatabase();
 
-            db.execSQL(
-                    "UPDATE accessory SET owned=0, equipped=0 WHERE type=?",
-                    new String[]{category}
-            );
+            db.execSQL(SQL_RESET_ACCESSORY_CATEGORY, new String[]{category});
+            OutfitManager.onOutfitReset();
+            invalidation.invalidate(InvalidationTracker.TABLE_ACCESSORY);
         } catch (Exception e) {
             // Table doesn't exist yet, ignore
             android.util.Log.d("DatabaseManager", "Accessory table not found: " + e.getMessage());
         }
     }
 
-    // ================= RESET INVENTORY & OUTFIT (SharedPreferences) =================
+    // ================= RESET INVENTORY & OUTFIT (KeyValueStore) =================
 
     /**
-     * Reset all inventory and outfit data stored in SharedPreferences (for testing)
+     * Reset all inventory and outfit data (for testing)
      * This clears InventoryManager and OutfitManager data
      */
     public void resetInventoryAndOutfit() {
         android.util.Log.d("DatabaseManager", "========== STARTING RESET ==========");
 
-        // Reset InventoryManager (items owned) - "inventory_data"
+        // Reset InventoryManager (items owned)
         try {
-            SharedPreferences invPrefs = appContext.getSharedPreferences("inventory_data", Context.MODE_PRIVATE);
-            boolean cleared = invPrefs.edit().clear().commit(); // Use commit() to ensure it's immediate
-            android.util.Log.d("DatabaseManager", "InventoryManager cleared: " + cleared);
-
-            // Verify it's empty
-            int remaining = invPrefs.getAll().size();
-            android.util.Log.d("DatabaseManager", "Inventory items remaining: " + remaining);
+            InventoryManager.clear(appContext);
+            android.util.Log.d("DatabaseManager", "InventoryManager cleared");
         } catch (Exception e) {
             android.util.Log.e("DatabaseManager", "Error clearing InventoryManager: " + e.getMessage());
         }
 
-        // Reset OutfitManager (items equipped) - "outfit_data"
+        // Reset OutfitManager (items equipped)
         try {
-            SharedPreferences outfitPrefs = appContext.getSharedPreferences("outfit_data", Context.MODE_PRIVATE);
-            boolean cleared = outfitPrefs.edit().clear().commit(); // Use commit() to ensure it's immediate
-            android.util.Log.d("DatabaseManager", "OutfitManager cleared: " + cleared);
-
-            // Verify it's empty
-            int remaining = outfitPrefs.getAll().size();
-            android.util.Log.d("DatabaseManager", "Outfit items remaining: " + remaining);
+            OutfitManager.resetAll(appContext);
+            android.util.Log.d("DatabaseManager", "OutfitManager cleared");
         } catch (Exception e) {
             android.util.Log.e("DatabaseManager", "Error clearing OutfitManager: " + e.getMessage());
         }
@@ -790,12 +1199,18 @@ public class DatabaseManager {
     }
 
     /**
-     * Nuclear option: Clear ALL SharedPreferences (for testing)
+     * Nuclear option: Clear ALL stored app state (for testing)
      */
     public void resetAllSharedPreferences() {
         android.util.Log.d("DatabaseManager", "========== CLEARING ALL SHAREDPREFS ==========");
 
+        // Name, outfit, inventory and flags - one write
+        store.edit().clear().apply();
+        OutfitManager.resetAll(appContext);
+
+        // Leftovers from before KeyValueStore
         String[] prefsNames = {
+                "pet_data",
                 "inventory_data",
                 "outfit_data",
                 "virtual_companion_prefs",
@@ -813,10 +1228,173 @@ public class DatabaseManager {
             }
         }
 
+        // Owned items live in the accessory table
+        InventoryManager.clear(appContext);
+
         // Also clear quest session and history
         clearCurrentQuestSession();
         clearAllQuestHistory();
 
+        invalidation.invalidateAll();
+
         android.util.Log.d("DatabaseManager", "========== ALL PREFS CLEARED ==========");
     }
-}
\ No newline at end of file
+
+    // ================= ASYNC API =================
+    // Same operations as above, but run on background threads.
+    // Writes share one thread so they land in the order they were made,
+    // reads use a small pool. Callbacks (may be null) run on the main thread,
+    // with either the result or the exception the work threw.
+
+    /**
+     * Run any read on the reader pool
+     */
+    public <T> Future<T> read(Callable<T> work, Callback<T> callback) {
+        return submit(readExecutor, work, callback);
+    }
+
+    /**
+     * Run any write on the writer thread
+     */
+    public <T> Future<T> write(Callable<T> work, Callback<T> callback) {
+        return submit(writeExecutor, work, callback);
+    }
+
+    public Future<UserProfile> getProfileAsync(Callback<UserProfile> callback) {
+        return read(this::getProfile, callback);
+    }
+
+    public Future<String> getNameAsync(Callback<String> callback) {
+        return read(this::getName, callback);
+    }
+
+    public Future<Void> setNameAsync(String name, Callback<Void> callback) {
+        return write(() -> {
+            setName(name);
+            return null;
+        }, callback);
+    }
+
+    public Future<Integer> getCoinsAsync(Callback<Integer> callback) {
+        return read(this::getCoins, callback);
+    }
+
+    /**
+     * Add / subtract coins, then report the new balance
+     */
+    public Future<Integer> addCoinsAsync(int amount, Callback<Integer> callback) {
+        return write(() -> {
+            addCoins(amount);
+            return getCoins();
+        }, callback);
+    }
+
+    public Future<String> getGenderAsync(Callback<String> callback) {
+        return read(this::getGender, callback);
+    }
+
+    public Future<Void> setGenderAsync(String gender, Callback<Void> callback) {
+        return write(() -> {
+            setGender(gender);
+            return null;
+        }, callback);
+    }
+
+    public Future<Void> saveMoodAsync(int value, String date, Callback<Void> callback) {
+        return write(() -> {
+            saveMood(value, date);
+            return null;
+        }, callback);
+    }
+
+    public Future<Boolean> hasSelectedMoodTodayAsync(Callback<Boolean> callback) {
+        return read(this::hasSelectedMoodToday, callback);
+    }
+
+    public Future<Integer> getLatestMoodAsync(Callback<Integer> callback) {
+        return read(this::getLatestMood, callback);
+    }
+
+    public Future<Boolean> hasCompletedFirstQuestTodayAsync(Callback<Boolean> callback) {
+        return read(this::hasCompletedFirstQuestToday, callback);
+    }
+
+    /**
+     * Runs on the writer thread: picking a new quest set saves the session
+     */
+    public Future<List<Quest>> getQuestsForMoodAsync(int moodIndex, Callback<List<Quest>> callback) {
+        return write(() -> getQuestsForMood(moodIndex), callback);
+    }
+
+    public Future<Boolean> areAllCurrentQuestsCompleteAsync(Callback<Boolean> callback) {
+        return read(this::areAllCurrentQuestsComplete, callback);
+    }
+
+    public Future<Integer> getQuestProgressAsync(int questId, Callback<Integer> callback) {
+        return read(() -> getQuestProgress(questId), callback);
+    }
+
+    public Future<Void> updateQuestProgressAsync(int questId, int progress, Callback<Void> callback) {
+        return write(() -> {
+            updateQuestProgress(questId, progress);
+            return null;
+        }, callback);
+    }
+
+    public Future<Boolean> isQuestRewardedAsync(int questId, Callback<Boolean> callback) {
+        return read(() -> isQuestRewarded(questId), callback);
+    }
+
+    public Future<Void> markQuestRewardedAsync(int questId, Callback<Void> callback) {
+        return write(() -> {
+            markQuestRewarded(questId);
+            return null;
+        }, callback);
+    }
+
+    public Future<QuestCompletion> completeQuestAsync(int questId, Callback<QuestCompletion> callback) {
+        return write(() -> completeQuest(questId), callback);
+    }
+
+    public Future<PurchaseResult> purchaseAsync(String itemKey, Callback<PurchaseResult> callback) {
+        return write(() -> purchase(itemKey), callback);
+    }
+
+    public Future<Wardrobe> getWardrobeAsync(Outfit.Slot slot, Callback<Wardrobe> callback) {
+        return read(() -> getWardrobe(slot), callback);
+    }
+
+    public Future<Integer> getCompletedQuestCountForMoodAsync(String mood, Callback<Integer> callback) {
+        return read(() -> getCompletedQuestCountForMood(mood), callback);
+    }
+
+    private <T> Future<T> submit(ExecutorService executor, Callable<T> work, Callback<T> callback) {
+        return executor.submit(() -> {
+            T result;
+            try {
+                result = work.call();
+            } catch (Exception e) {
+                android.util.Log.e("DatabaseManager", "Async database call failed: " + e.getMessage());
+                if (callback != null) {
+                    mainHandler.post(() -> callback.onError(e));
+                }
+                throw e;
+            }
+
+            if (callback != null) {
+                mainHandler.post(() -> callback.onResult(result));
+            }
+
+            return result;
+        });
+    }
+
+    private static ThreadFactory namedThreads(String name) {
+        AtomicInteger count = new AtomicInteger();
+        return r -> {
+            Thread t = new Thread(r, name + "-" + count.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        };
+    }
+}
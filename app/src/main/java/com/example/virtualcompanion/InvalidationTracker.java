@@ -0,0 +1,172 @@
+package com.example.virtualcompanion;
+
+import android.os.Handler;
+import android.os.Looper;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * InvalidationTracker
+ *
+ * Knows which tables / pref keys changed, so screens only re-query when
+ * something they show is actually dirty.
+ * - DatabaseManager calls invalidate() after every write (after commit)
+ *   and hands out watches / listeners (watchTables, addTableListener)
+ * - every name has a version number that goes up on each write
+ * - Watch: remembers the versions a screen last loaded (isDirty / markClean)
+ * - Observer: told on the main thread when one of its names changes
+ */
+public final class InvalidationTracker {
+
+    // ================= NAMES =================
+
+    public static final String TABLE_USER = "user";
+    public static final String TABLE_QUEST = "quest";
+    public static final String TABLE_QUEST_SESSION = "quest_session";
+    public static final String TABLE_QUEST_USAGE = "quest_usage";
+    public static final String TABLE_MOOD = "mood";
+    public static final String TABLE_ACCESSORY = "accessory";
+    public static final String TABLE_SESSION_COMPLETION = "session_completion";
+
+    // SharedPreferences keys that screens depend on
+    public static final String PREF_HAS_CUSTOMIZED = "pref:has_customized";
+
+    private static final String[] ALL = {
+            TABLE_USER, TABLE_QUEST, TABLE_QUEST_SESSION, TABLE_QUEST_USAGE, TABLE_MOOD, TABLE_ACCESSORY,
+            TABLE_SESSION_COMPLETION, PREF_HAS_CUSTOMIZED
+    };
+
+    /**
+     * Told (on the main thread) which of its names changed
+     */
+    public interface Observer {
+        void onInvalidated(Set<String> changed);
+    }
+
+    private static final class Registration {
+        final Observer observer;
+        final Set<String> names;
+
+        Registration(Observer observer, Set<String> names) {
+            this.observer = observer;
+            this.names = names;
+        }
+    }
+
+    private final ConcurrentHashMap<String, AtomicLong> versions = new ConcurrentHashMap<>();
+    private final CopyOnWriteArrayList<Registration> observers = new CopyOnWriteArrayList<>();
+    private final Handler mainHandler = new Handler(Looper.getMainLooper());
+
+    // ================= WRITES =================
+
+    /**
+     * Mark names as changed (call after the write is committed)
+     */
+    public void invalidate(String... names) {
+        for (String name : names) {
+            version(name).incrementAndGet();
+        }
+
+        if (observers.isEmpty()) return;
+
+        Set<String> changed = new HashSet<>(Arrays.asList(names));
+        mainHandler.post(() -> {
+            for (Registration registration : observers) {
+                if (!Collections.disjoint(registration.names, changed)) {
+                    Set<String> relevant = new HashSet<>(changed);
+                    relevant.retainAll(registration.names);
+                    registration.observer.onInvalidated(relevant);
+                }
+            }
+        });
+    }
+
+    /**
+     * Everything changed (database deleted, all prefs cleared)
+     */
+    public void invalidateAll() {
+        invalidate(ALL);
+    }
+
+    public long getVersion(String name) {
+        return version(name).get();
+    }
+
+    // ================= OBSERVERS =================
+
+    public void addObserver(Observer observer, String... names) {
+        observers.add(new Registration(observer, new HashSet<>(Arrays.asList(names))));
+    }
+
+    public void removeObserver(Observer observer) {
+        for (Registration registration : observers) {
+            if (registration.observer == observer) {
+                observers.remove(registration);
+            }
+        }
+    }
+
+    // ================= WATCH =================
+
+    /**
+     * Start watching names (dirty until the first markClean)
+     */
+    public Watch watch(String... names) {
+        return new Watch(names.clone());
+    }
+
+    /**
+     * Versions a screen last loaded.
+     * Take capture() BEFORE starting the query and pass it to markClean()
+     * when the result is shown - a write in between keeps it dirty.
+     */
+    public final class Watch {
+        private final String[] names;
+        private long[] seen;
+
+        private Watch(String[] names) {
+            this.names = names;
+        }
+
+        public long[] capture() {
+            long[] current = new long[names.length];
+            for (int i = 0; i < names.length; i++) {
+                current[i] = getVersion(names[i]);
+            }
+            return current;
+        }
+
+        public boolean isDirty() {
+            return seen == null || !Arrays.equals(seen, capture());
+        }
+
+        public void markClean(long[] captured) {
+            seen = captured;
+        }
+
+        /**
+         * Force a reload next time (e.g. the day changed)
+         */
+        public void markDirty() {
+            seen = null;
+        }
+    }
+
+    private AtomicLong version(String name) {
+        AtomicLong version = versions.get(name);
+        if (version == null) {
+            AtomicLong created = new AtomicLong();
+            version = versions.putIfAbsent(name, created);
+            if (version == null) {
+                version = created;
+            }
+        }
+        return version;
+    }
+}
@@ -2,52 +2,104 @@ package com.example.virtualcompanion;
 
 import android.content.Context;
 import android.content.SharedPreferences;
+import android.util.AtomicFile;
 
-import java.util.HashSet;
+import java.io.DataInputStream;
+import java.io.File;
+import java.io.IOException;
 import java.util.Set;
 
 /**
  * InventoryManager
- * Tracks which outfit items the user owns
+ * Which outfit items the user owns
+ *
+ * - Owned items are stored in the accessory table (DatabaseManager, SHOP);
+ *   screens read them per category as a Wardrobe
+ * - Free items are owned from the first database open (AccessoryCatalog)
+ * - Purchases go through DatabaseManager.purchase() (coins + ownership together)
+ * - What is left here: the testing reset and the pre-database storage
  */
 public class InventoryManager {
 
+    // Old storage (moved into KeyValueStore, then into the accessory table)
     private static final String PREF_NAME = "inventory_data";
     private static final String KEY_OWNED_ITEMS = "owned_items";
+    private static final String LEGACY_FILE_NAME = "inventory.bin";
+    private static final int LEGACY_FILE_MAGIC = 0x494E5631; // "INV1"
 
-    private static SharedPreferences getPrefs(Context context) {
-        return context.getSharedPreferences(PREF_NAME, Context.MODE_PRIVATE);
-    }
+    // Bit i = ItemCatalog item i (catalog rows are append-only)
+    private static final int WORD_COUNT = (ItemCatalog.size() + 63) / 64;
 
     /**
-     * Check if user owns an item
+     * Forget every owned item except the free ones (testing reset)
      */
-    public static boolean isOwned(Context c, int resId) {
-        if (resId == 0) return true; // Empty slot is always "owned"
-
-        Set<String> owned = getPrefs(c).getStringSet(KEY_OWNED_ITEMS, new HashSet<>());
-        return owned.contains(String.valueOf(resId));
+    public static void clear(Context c) {
+        DatabaseManager.get(c).resetAllAccessories();
     }
 
+    // ================= LEGACY =================
+
     /**
-     * Mark an item as owned
+     * Owned bits from the storage used before KeyValueStore (inventory.bin,
+     * or the StringSet before that). Only reads - see deleteLegacy(). Null if
+     * neither exists.
      */
-    public static void addItem(Context c, int resId) {
-        Set<String> owned = new HashSet<>(
-                getPrefs(c).getStringSet(KEY_OWNED_ITEMS, new HashSet<>())
-        );
-        owned.add(String.valueOf(resId));
-        getPrefs(c).edit().putStringSet(KEY_OWNED_ITEMS, owned).apply();
+    static long[] readLegacy(Context c) {
+        File legacyFile = legacyFile(c);
+        if (legacyFile.exists()) {
+            return readLegacyFile(new AtomicFile(legacyFile));
+        }
+
+        SharedPreferences prefs = c.getSharedPreferences(PREF_NAME, Context.MODE_PRIVATE);
+        Set<String> stored = prefs.getStringSet(KEY_OWNED_ITEMS, null);
+        if (stored == null) return null;
+
+        long[] words = new long[WORD_COUNT];
+        for (String value : stored) {
+            try {
+                int bit = ItemCatalog.indexOfEquip(Integer.parseInt(value));
+                if (bit >= 0) {
+                    words[bit >>> 6] |= 1L << bit;
+                }
+            } catch (NumberFormatException ignored) {
+                // Not a resource ID - skip
+            }
+        }
+        return words;
     }
 
     /**
-     * Initialize default free items
+     * Remove the legacy storage, once what readLegacy() returned is saved
      */
-    public static void initDefaults(Context c, int[] freeItems) {
-        for (int resId : freeItems) {
-            if (resId != 0 && !isOwned(c, resId)) {
-                addItem(c, resId);
+    static void deleteLegacy(Context c) {
+        new AtomicFile(legacyFile(c)).delete();
+
+        SharedPreferences prefs = c.getSharedPreferences(PREF_NAME, Context.MODE_PRIVATE);
+        if (prefs.contains(KEY_OWNED_ITEMS)) {
+            prefs.edit().remove(KEY_OWNED_ITEMS).commit();
+        }
+    }
+
+    private static File legacyFile(Context c) {
+        return new File(c.getApplicationContext().getFilesDir(), LEGACY_FILE_NAME);
+    }
+
+    private static long[] readLegacyFile(AtomicFile file) {
+        long[] words = new long[WORD_COUNT];
+        try (DataInputStream in = new DataInputStream(file.openRead())) {
+            if (in.readInt() != LEGACY_FILE_MAGIC) {
+                throw new IOException("Bad inventory file");
+            }
+            int count = in.readInt();
+            for (int i = 0; i < count; i++) {
+                long word = in.readLong();
+                if (i < words.length) {
+                    words[i] = word;
+                }
             }
+        } catch (IOException e) {
+            android.util.Log.e("InventoryManager", "Could not read inventory: " + e.getMessage());
         }
+        return words;
     }
-}
\ No newline at end of file
+}
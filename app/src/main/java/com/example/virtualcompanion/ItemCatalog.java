@@ -0,0 +1,345 @@
+package com.example.virtualcompanion;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * ItemCatalog
+ * Every outfit item the shop sells, built once per process.
+ *
+ * - Each item has a stable key ("top.flannel") and an index (its row below).
+ *   Keys are what gets saved; the index is the item's bit in owned-item sets.
+ *   Rows are only ever appended, never reordered or removed.
+ * - equip drawable -> item and thumb -> equip drawable lookups go through
+ *   primitive tables (no if-chains)
+ * - Items per slot and per gender, and each slot's shop per pet gender,
+ *   are precomputed
+ */
+public final class ItemCatalog {
+
+    // Bump when items are added or a price changes (AccessoryCatalog re-syncs the accessory table)
+    // 2: free items are owned from the sync
+    public static final int VERSION = 2;
+
+    // ================= ITEMS =================
+
+    // Outfit.Slot ordinals
+    private static final byte TOP = 0;
+    private static final byte BOTTOM = 1;
+    private static final byte HAT = 2;
+    private static final byte GLASSES = 3;
+
+    // Whose wardrobe an item comes from
+    private static final byte ANY = 0;
+    private static final byte BOY = 1;
+    private static final byte GIRL = 2;
+
+    private static final String[] KEYS = {
+            // Tops
+            "top.flannel", "top.pink", "top.quarterzip", "top.floral", "top.plaid",
+            "top.cardigan", "top.leather", "top.dress", "top.tuxedo",
+            // Bottoms
+            "bottom.flaredpants", "bottom.denimpants", "bottom.skirt", "bottom.short", "bottom.blackpants",
+            // Hats
+            "hat.gang", "hat.flower", "hat.cowboy", "hat.beach",
+            // Glasses
+            "glasses.normal", "glasses.shades", "glasses.maloi", "glasses.heart"
+    };
+
+    private static final byte[] SLOTS = {
+            TOP, TOP, TOP, TOP, TOP, TOP, TOP, TOP, TOP,
+            BOTTOM, BOTTOM, BOTTOM, BOTTOM, BOTTOM,
+            HAT, HAT, HAT, HAT,
+            GLASSES, GLASSES, GLASSES, GLASSES
+    };
+
+    private static final byte[] GENDERS = {
+            BOY, GIRL, BOY, BOY, GIRL, GIRL, BOY, GIRL, BOY,
+            GIRL, BOY, GIRL, BOY, BOY,
+            ANY, ANY, ANY, ANY,
+            ANY, ANY, ANY, ANY
+    };
+
+    // Shop card image
+    private static final int[] THUMBS = {
+            R.drawable.top_boy_flannel,
+            R.drawable.top_girl_pink,
+            R.drawable.top_boy_quarterzip,
+            R.drawable.top_boy_floral,
+            R.drawable.top_girl_plaid,
+            R.drawable.top_girl_cardigan,
+            R.drawable.top_boy_leather,
+            R.drawable.top_girl_dress,
+            R.drawable.top_boy_tuxedo,
+
+            R.drawable.bottom_girl_flaredpants,
+            R.drawable.bottom_boy_denimpants,
+            R.drawable.bottom_girl_skirt,
+            R.drawable.bottom_boy_short,
+            R.drawable.bottom_boy_blackpants,
+
+            R.drawable.hat_gang,
+            R.drawable.hat_flower,
+            R.drawable.hat_cowboy,
+            R.drawable.hat_beach,
+
+            R.drawable.glasses_normal,
+            R.drawable.glasses_shades,
+            R.drawable.glasses_maloi,
+            R.drawable.glasses_heart
+    };
+
+    // Layer drawn on the pet
+    private static final int[] EQUIPS = {
+            R.drawable.top_boy_flannel_1,
+            R.drawable.top_girl_pink_1,
+            R.drawable.top_boy_quarterzip_1,
+            R.drawable.top_boy_floral_1,
+            R.drawable.top_girl_plaid_1,
+            R.drawable.top_girl_cardigan_1,
+            R.drawable.top_boy_leather_1,
+            R.drawable.top_girl_dress_1,
+            R.drawable.top_boy_tuxedo_1,
+
+            R.drawable.bottom_girl_flaredpants_1,
+            R.drawable.bottom_boy_denimpants_1,
+            R.drawable.bottom_girl_skirt_1,
+            R.drawable.bottom_boy_short_1,
+            R.drawable.bottom_boy_blackpants_1,
+
+            R.drawable.hat_gang_1,
+            R.drawable.hat_flower_1,
+            R.drawable.hat_cowboy_1,
+            R.drawable.hat_beach_1,
+
+            R.drawable.glasses_normal_1,
+            R.drawable.glasses_shades_1,
+            R.drawable.glasses_maloi_1,
+            R.drawable.glasses_heart_1
+    };
+
+    private static final int[] PRICES = {
+            0, 0, 150, 0, 0, 150, 200, 250, 250,
+            0, 0, 200, 200, 250,
+            0, 0, 150, 180,
+            0, 0, 150, 180
+    };
+
+    // ================= LOOKUP TABLES =================
+
+    // All item drawables share the resource package + type bits; the low
+    // 16 bits (entry) index straight into this table (-1 = not an item)
+    private static final int TYPE_BITS = EQUIPS[0] >>> 16;
+    private static final short[] INDEX_BY_EQUIP = entryTable(EQUIPS);
+    private static final short[] INDEX_BY_THUMB = entryTable(THUMBS);
+
+    private static final Map<String, Integer> INDEX_BY_KEY = new HashMap<>();
+
+    // Item indices per Outfit.Slot (shop order)
+    private static final int[][] BY_SLOT = new int[Outfit.Slot.values().length][];
+
+    // Item indices per gender (ANY / BOY / GIRL), unisex items included
+    private static final int[][] BY_GENDER = new int[3][];
+
+    // [slot][gender]
+    private static final Shop[][] SHOPS = new Shop[Outfit.Slot.values().length][3];
+
+    static {
+        if (SLOTS.length != KEYS.length || GENDERS.length != KEYS.length || THUMBS.length != KEYS.length
+                || EQUIPS.length != KEYS.length || PRICES.length != KEYS.length) {
+            throw new IllegalStateException("ItemCatalog columns differ in length");
+        }
+
+        for (int i = 0; i < KEYS.length; i++) {
+            INDEX_BY_KEY.put(KEYS[i], i);
+        }
+
+        for (int slot = 0; slot < BY_SLOT.length; slot++) {
+            BY_SLOT[slot] = filter(SLOTS, slot, -1);
+        }
+
+        BY_GENDER[ANY] = filter(GENDERS, ANY, -1);
+        BY_GENDER[BOY] = filter(GENDERS, BOY, ANY);
+        BY_GENDER[GIRL] = filter(GENDERS, GIRL, ANY);
+
+        for (int slot = 0; slot < SHOPS.length; slot++) {
+            for (int gender = 0; gender < BY_GENDER.length; gender++) {
+                SHOPS[slot][gender] = new Shop(shopOrder(BY_SLOT[slot], BY_GENDER[gender]));
+            }
+        }
+    }
+
+    private ItemCatalog() {
+    }
+
+    private static short[] entryTable(int[] resIds) {
+        int maxEntry = 0;
+        for (int resId : resIds) {
+            maxEntry = Math.max(maxEntry, resId & 0xFFFF);
+        }
+
+        short[] table = new short[maxEntry + 1];
+        Arrays.fill(table, (short) -1);
+        for (int i = 0; i < resIds.length; i++) {
+            table[resIds[i] & 0xFFFF] = (short) i;
+        }
+        return table;
+    }
+
+    private static int lookup(short[] table, int resId) {
+        if (resId >>> 16 != TYPE_BITS) return -1;
+
+        int entry = resId & 0xFFFF;
+        return entry < table.length ? table[entry] : -1;
+    }
+
+    // Indices whose value is `value` or `alsoValue`
+    private static int[] filter(byte[] values, int value, int alsoValue) {
+        int[] matches = new int[values.length];
+        int count = 0;
+        for (int i = 0; i < values.length; i++) {
+            if (values[i] == value || values[i] == alsoValue) {
+                matches[count++] = i;
+            }
+        }
+        return Arrays.copyOf(matches, count);
+    }
+
+    // The slot's items for this gender first, then the rest (both in row order)
+    private static int[] shopOrder(int[] slotItems, int[] genderItems) {
+        int[] order = new int[slotItems.length];
+        int count = 0;
+        for (int item : slotItems) {
+            if (Arrays.binarySearch(genderItems, item) >= 0) order[count++] = item;
+        }
+        for (int item : slotItems) {
+            if (Arrays.binarySearch(genderItems, item) < 0) order[count++] = item;
+        }
+        return order;
+    }
+
+    private static int genderIndex(String gender) {
+        if ("female".equalsIgnoreCase(gender)) return GIRL;
+        if ("male".equalsIgnoreCase(gender)) return BOY;
+        return ANY;
+    }
+
+    // ================= PUBLIC API =================
+
+    public static int size() {
+        return KEYS.length;
+    }
+
+    /**
+     * Index of an equip drawable (-1 if it is not a shop item)
+     */
+    public static int indexOfEquip(int equipResId) {
+        return lookup(INDEX_BY_EQUIP, equipResId);
+    }
+
+    /**
+     * Index of a stable key (-1 if unknown)
+     */
+    public static int indexOfKey(String key) {
+        if (key == null) return -1;
+
+        Integer index = INDEX_BY_KEY.get(key);
+        return index != null ? index : -1;
+    }
+
+    public static String keyAt(int index) {
+        return KEYS[index];
+    }
+
+    public static int equipAt(int index) {
+        return EQUIPS[index];
+    }
+
+    public static int priceAt(int index) {
+        return PRICES[index];
+    }
+
+    public static Outfit.Slot slotAt(int index) {
+        return Outfit.Slot.values()[SLOTS[index]];
+    }
+
+    /**
+     * Shop card image for an equipped drawable (0 if unknown)
+     */
+    public static int thumbForEquip(int equipResId) {
+        int index = indexOfEquip(equipResId);
+        return index >= 0 ? THUMBS[index] : 0;
+    }
+
+    /**
+     * Equip drawable for a shop card image (0 if unknown, e.g. the
+     * "take it off" card)
+     */
+    public static int equipForThumb(int thumbResId) {
+        int index = lookup(INDEX_BY_THUMB, thumbResId);
+        return index >= 0 ? EQUIPS[index] : 0;
+    }
+
+    /**
+     * Stable key for an equip drawable (null for 0 / unknown)
+     */
+    public static String keyForEquip(int equipResId) {
+        int index = indexOfEquip(equipResId);
+        return index >= 0 ? KEYS[index] : null;
+    }
+
+    /**
+     * Equip drawable for a stable key (0 for null / unknown)
+     */
+    public static int equipForKey(String key) {
+        int index = indexOfKey(key);
+        return index >= 0 ? EQUIPS[index] : 0;
+    }
+
+    /**
+     * Item indices for a pet gender ("male" / "female"), unisex items
+     * included; any other value gets only the unisex items.
+     * Shared - do not modify.
+     */
+    public static int[] itemsFor(String gender) {
+        return BY_GENDER[genderIndex(gender)];
+    }
+
+    /**
+     * Adapter-ready arrays for one slot's shop (built once). The pet's own
+     * items (itemsFor(gender)) come first, everything else after.
+     */
+    public static Shop shop(Outfit.Slot slot, String gender) {
+        return SHOPS[slot.ordinal()][genderIndex(gender)];
+    }
+
+    // ================= SHOP =================
+
+    /**
+     * One Custom* screen's item list. Position 0 is the "take it off" card.
+     * Arrays are shared - do not modify.
+     */
+    public static final class Shop {
+        public final int[] shopImages;
+        public final String[] prices;
+        public final int[] priceValues;
+
+        private Shop(int[] items) {
+            int size = items.length + 1;
+            shopImages = new int[size];
+            prices = new String[size];
+            priceValues = new int[size];
+
+            shopImages[0] = R.drawable.ic_cancel;
+            prices[0] = " ";
+
+            for (int i = 0; i < items.length; i++) {
+                int item = items[i];
+                shopImages[i + 1] = THUMBS[item];
+                prices[i + 1] = String.valueOf(PRICES[item]);
+                priceValues[i + 1] = PRICES[item];
+            }
+        }
+    }
+}
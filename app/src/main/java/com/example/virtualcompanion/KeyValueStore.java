@@ -0,0 +1,534 @@
+package com.example.virtualcompanion;
+
+import android.content.Context;
+import android.content.SharedPreferences;
+import android.util.AtomicFile;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * KeyValueStore
+ *
+ * All small app state in ONE binary file (files/app_state.bin), replacing
+ * the pet_data / outfit_data / inventory_data / virtual_companion_prefs
+ * SharedPreferences files.
+ * - Typed values: int, long, boolean, String, long[]
+ * - edit() ... apply(): every change in the transaction becomes visible at
+ *   once and is saved in the same file write
+ * - Saving happens on a background thread; several apply() calls in a row
+ *   are coalesced into one write of the latest state
+ * - The file carries a schema version; version 0 -> 1 imports the old prefs,
+ *   1 -> 2 turns saved outfit drawable ids into ItemCatalog keys
+ * - Loading and migrating run on the writer thread (started by get(), which
+ *   MainApplication calls early); reads wait until the load is done
+ */
+public final class KeyValueStore {
+
+    // ================= KEYS =================
+
+    public static final String KEY_PET_NAME = "pet.name";
+    // Outfit + owned items: only until the first database open
+    // (AccessoryCatalog moves them into the accessory table)
+    public static final String KEY_OUTFIT_TOP = "outfit.top";
+    public static final String KEY_OUTFIT_BOTTOM = "outfit.bottom";
+    public static final String KEY_OUTFIT_HAT = "outfit.hat";
+    public static final String KEY_OUTFIT_GLASSES = "outfit.glasses";
+    public static final String KEY_INVENTORY_OWNED = "inventory.owned";
+    public static final String KEY_HAS_CUSTOMIZED = "app.has_customized";
+    public static final String KEY_HAPPY_QUEST_DATE = "quest.happy_completed_date";
+
+    // ================= FILE FORMAT =================
+
+    private static final String FILE_NAME = "app_state.bin";
+    static final int FILE_MAGIC = 0x4B565331; // "KVS1"
+
+    // Bump (and add a step to migrate()) when keys are renamed or re-typed
+    static final int SCHEMA_VERSION = 2;
+
+    private static final byte TYPE_INT = 1;
+    private static final byte TYPE_LONG = 2;
+    private static final byte TYPE_BOOLEAN = 3;
+    private static final byte TYPE_STRING = 4;
+    private static final byte TYPE_LONG_ARRAY = 5;
+
+    private static KeyValueStore instance;
+
+    private final Context appContext;
+    private final AtomicFile file;
+
+    // Current values (guarded by lock). long[] values are never changed in place.
+    private final Object lock = new Object();
+    private final Map<String, Object> values = new HashMap<>();
+    private int schemaVersion;
+
+    // Saving
+    private final ExecutorService writer = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "kv-writer");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private boolean flushPending;   // guarded by lock
+    private Future<?> lastFlush;     // guarded by lock
+
+    // Open once read() and migrate() have run on the writer thread
+    private final CountDownLatch loaded = new CountDownLatch(1);
+
+    private KeyValueStore(Context context) {
+        appContext = context.getApplicationContext();
+        file = new AtomicFile(new File(appContext.getFilesDir(), FILE_NAME));
+
+        writer.execute(this::load);
+    }
+
+    /**
+     * The store; the first call starts loading it in the background
+     */
+    public static synchronized KeyValueStore get(Context c) {
+        if (instance == null) {
+            instance = new KeyValueStore(c);
+        }
+        return instance;
+    }
+
+    // ================= READS =================
+
+    public boolean contains(String key) {
+        awaitLoaded();
+        synchronized (lock) {
+            return values.containsKey(key);
+        }
+    }
+
+    public int getInt(String key, int defaultValue) {
+        Object value = value(key);
+        return value instanceof Integer ? (Integer) value : defaultValue;
+    }
+
+    public long getLong(String key, long defaultValue) {
+        Object value = value(key);
+        return value instanceof Long ? (Long) value : defaultValue;
+    }
+
+    public boolean getBoolean(String key, boolean defaultValue) {
+        Object value = value(key);
+        return value instanceof Boolean ? (Boolean) value : defaultValue;
+    }
+
+    public String getString(String key, String defaultValue) {
+        Object value = value(key);
+        return value instanceof String ? (String) value : defaultValue;
+    }
+
+    /**
+     * Stored array (shared - do not modify it)
+     */
+    public long[] getLongArray(String key, long[] defaultValue) {
+        Object value = value(key);
+        return value instanceof long[] ? (long[]) value : defaultValue;
+    }
+
+    private Object value(String key) {
+        awaitLoaded();
+        synchronized (lock) {
+            return values.get(key);
+        }
+    }
+
+    // ================= WRITES =================
+
+    /**
+     * Start a transaction (nothing changes until apply())
+     */
+    public Transaction edit() {
+        return new Transaction();
+    }
+
+    /**
+     * Group of changes that land together
+     */
+    public final class Transaction {
+        private final List<String> keys = new ArrayList<>();
+        private final List<Object> newValues = new ArrayList<>();   // null = remove
+        private boolean clearAll;
+
+        private Transaction() {
+        }
+
+        public Transaction putInt(String key, int value) {
+            return put(key, value);
+        }
+
+        public Transaction putLong(String key, long value) {
+            return put(key, value);
+        }
+
+        public Transaction putBoolean(String key, boolean value) {
+            return put(key, value);
+        }
+
+        public Transaction putString(String key, String value) {
+            return put(key, value);
+        }
+
+        public Transaction putLongArray(String key, long[] value) {
+            return put(key, value != null ? value.clone() : null);
+        }
+
+        public Transaction remove(String key) {
+            return put(key, null);
+        }
+
+        /**
+         * Remove every key first (puts in the same transaction still apply)
+         */
+        public Transaction clear() {
+            clearAll = true;
+            return this;
+        }
+
+        private Transaction put(String key, Object value) {
+            keys.add(key);
+            newValues.add(value);
+            return this;
+        }
+
+        /**
+         * Make all changes visible now and save them in the background
+         */
+        public void apply() {
+            awaitLoaded();
+            synchronized (lock) {
+                applyTo(values);
+                scheduleFlush();
+            }
+        }
+
+        private void applyTo(Map<String, Object> target) {
+            if (clearAll) {
+                target.clear();
+            }
+            for (int i = 0; i < keys.size(); i++) {
+                if (newValues.get(i) == null) {
+                    target.remove(keys.get(i));
+                } else {
+                    target.put(keys.get(i), newValues.get(i));
+                }
+            }
+        }
+    }
+
+    /**
+     * Block until everything applied so far is on disk
+     */
+    public void flush() {
+        awaitLoaded();
+
+        Future<?> pending;
+        synchronized (lock) {
+            pending = lastFlush;
+        }
+        if (pending == null) return;
+
+        try {
+            pending.get();
+        } catch (Exception e) {
+            android.util.Log.e("KeyValueStore", "Flush failed: " + e.getMessage());
+        }
+    }
+
+    // Call while holding lock
+    private void scheduleFlush() {
+        // A write is already queued - it will pick up these changes too
+        if (flushPending) return;
+
+        flushPending = true;
+        lastFlush = writer.submit(() -> {
+            writeSnapshot();
+            return null;
+        });
+    }
+
+    // Writer thread only
+    private void writeSnapshot() throws IOException {
+        Map<String, Object> snapshot;
+        int version;
+        synchronized (lock) {
+            snapshot = new HashMap<>(values);
+            version = schemaVersion;
+            flushPending = false;
+        }
+
+        FileOutputStream out = null;
+        try {
+            out = file.startWrite();
+            DataOutputStream data = new DataOutputStream(out);
+            writeState(data, version, snapshot);
+            data.flush();
+            file.finishWrite(out);
+        } catch (IOException e) {
+            if (out != null) {
+                file.failWrite(out);
+            }
+            android.util.Log.e("KeyValueStore", "Could not save: " + e.getMessage());
+            throw e;
+        }
+    }
+
+    /**
+     * Magic, schema version, entry count, then per entry: key, type tag, value
+     */
+    static void writeState(DataOutputStream data, int version, Map<String, Object> state) throws IOException {
+        data.writeInt(FILE_MAGIC);
+        data.writeInt(version);
+        data.writeInt(state.size());
+        for (Map.Entry<String, Object> entry : state.entrySet()) {
+            data.writeUTF(entry.getKey());
+            writeValue(data, entry.getValue());
+        }
+    }
+
+    private static void writeValue(DataOutputStream data, Object value) throws IOException {
+        if (value instanceof Integer) {
+            data.writeByte(TYPE_INT);
+            data.writeInt((Integer) value);
+        } else if (value instanceof Long) {
+            data.writeByte(TYPE_LONG);
+            data.writeLong((Long) value);
+        } else if (value instanceof Boolean) {
+            data.writeByte(TYPE_BOOLEAN);
+            data.writeBoolean((Boolean) value);
+        } else if (value instanceof String) {
+            data.writeByte(TYPE_STRING);
+            data.writeUTF((String) value);
+        } else {
+            long[] array = (long[]) value;
+            data.writeByte(TYPE_LONG_ARRAY);
+            data.writeInt(array.length);
+            for (long word : array) {
+                data.writeLong(word);
+            }
+        }
+    }
+
+    // ================= LOAD =================
+
+    // Writer thread, once
+    private void load() {
+        try {
+            read();
+            migrate();
+        } finally {
+            loaded.countDown();
+        }
+    }
+
+    private void awaitLoaded() {
+        boolean interrupted = false;
+        while (true) {
+            try {
+                loaded.await();
+                break;
+            } catch (InterruptedException e) {
+                interrupted = true;
+            }
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Load the state file. A truncated / corrupt one loads nothing: it is
+     * renamed to .corrupt (never overwritten) and the legacy import runs again.
+     */
+    private void read() {
+        if (!file.getBaseFile().exists()) {
+            schemaVersion = 0;
+            return;
+        }
+
+        try (DataInputStream in = new DataInputStream(file.openRead())) {
+            schemaVersion = readState(in, values);
+            return;
+        } catch (IOException | RuntimeException e) {
+            // RuntimeException: a corrupt length (negative array size, ...)
+            android.util.Log.e("KeyValueStore", "Could not read state: " + e);
+        }
+
+        // Nothing half-read survives
+        values.clear();
+        schemaVersion = 0;
+
+        File bad = file.getBaseFile();
+        File aside = new File(bad.getPath() + ".corrupt");
+        if (aside.exists()) {
+            aside.delete();
+        }
+        if (bad.renameTo(aside)) {
+            android.util.Log.w("KeyValueStore", "Kept unreadable state as " + aside.getName());
+        } else {
+            android.util.Log.e("KeyValueStore", "Could not move aside " + bad.getName());
+        }
+    }
+
+    /**
+     * Fill `into` from a stream written by writeState(); returns its schema version
+     */
+    static int readState(DataInputStream in, Map<String, Object> into) throws IOException {
+        if (in.readInt() != FILE_MAGIC) {
+            throw new IOException("Bad state file");
+        }
+        int version = in.readInt();
+
+        int count = in.readInt();
+        for (int i = 0; i < count; i++) {
+            String key = in.readUTF();
+            into.put(key, readValue(in));
+        }
+        return version;
+    }
+
+    private static Object readValue(DataInputStream in) throws IOException {
+        byte type = in.readByte();
+        switch (type) {
+            case TYPE_INT: return in.readInt();
+            case TYPE_LONG: return in.readLong();
+            case TYPE_BOOLEAN: return in.readBoolean();
+            case TYPE_STRING: return in.readUTF();
+            case TYPE_LONG_ARRAY:
+                long[] array = new long[in.readInt()];
+                for (int i = 0; i < array.length; i++) {
+                    array[i] = in.readLong();
+                }
+                return array;
+            default:
+                throw new IOException("Unknown value type " + type);
+        }
+    }
+
+    // ================= MIGRATION =================
+
+    /**
+     * Writer thread, before `loaded` opens. The upgraded state is written
+     * before any legacy source is removed; if that write fails they stay,
+     * and the import runs again on the next launch.
+     */
+    private void migrate() {
+        if (schemaVersion >= SCHEMA_VERSION) return;
+
+        boolean importLegacy = schemaVersion < 1;
+        if (importLegacy) {
+            importLegacyPrefs();
+        }
+        if (schemaVersion < 2) {
+            outfitIdsToKeys(values);
+        }
+        schemaVersion = SCHEMA_VERSION;
+
+        try {
+            writeSnapshot();
+        } catch (IOException e) {
+            return;
+        }
+
+        if (importLegacy) {
+            deleteLegacyPrefs();
+        }
+    }
+
+    /**
+     * One-time copy of the four old SharedPreferences files (they are
+     * cleared by deleteLegacyPrefs() once the copy is on disk)
+     */
+    private void importLegacyPrefs() {
+        Transaction tx = edit();
+
+        // NameManager
+        SharedPreferences pet = legacy("pet_data");
+        if (pet.contains("pet_name")) {
+            tx.putString(KEY_PET_NAME, pet.getString("pet_name", ""));
+        }
+
+        // OutfitManager
+        SharedPreferences outfit = legacy("outfit_data");
+        copyInt(tx, outfit, "top", KEY_OUTFIT_TOP);
+        copyInt(tx, outfit, "bottom", KEY_OUTFIT_BOTTOM);
+        copyInt(tx, outfit, "hat", KEY_OUTFIT_HAT);
+        copyInt(tx, outfit, "glasses", KEY_OUTFIT_GLASSES);
+
+        // InventoryManager (bitset file or the StringSet before it)
+        long[] owned = InventoryManager.readLegacy(appContext);
+        if (owned != null) {
+            tx.putLongArray(KEY_INVENTORY_OWNED, owned);
+        }
+
+        // DatabaseManager (quest session and first-quest keys stay - DatabaseHelper moves those)
+        SharedPreferences app = legacy("virtual_companion_prefs");
+        if (app.contains("has_customized")) {
+            tx.putBoolean(KEY_HAS_CUSTOMIZED, app.getBoolean("has_customized", false));
+        }
+        copyString(tx, app, "last_happy_quest_date", KEY_HAPPY_QUEST_DATE);
+
+        // Still loading: straight into the map, saved by migrate()
+        tx.applyTo(values);
+
+        android.util.Log.d("KeyValueStore", "Imported legacy SharedPreferences");
+    }
+
+    private void deleteLegacyPrefs() {
+        legacy("pet_data").edit().clear().commit();
+        legacy("outfit_data").edit().clear().commit();
+        legacy("virtual_companion_prefs").edit()
+                .remove("has_customized")
+                .remove("last_happy_quest_date")
+                .commit();
+        InventoryManager.deleteLegacy(appContext);
+    }
+
+    /**
+     * Schema 1 -> 2: outfit slots held R.drawable ids, which can change
+     * between builds
+     */
+    static void outfitIdsToKeys(Map<String, Object> state) {
+        for (String key : new String[]{KEY_OUTFIT_TOP, KEY_OUTFIT_BOTTOM, KEY_OUTFIT_HAT, KEY_OUTFIT_GLASSES}) {
+            Object value = state.get(key);
+            if (value instanceof Integer) {
+                // Unknown / 0 -> slot removed
+                String itemKey = ItemCatalog.keyForEquip((Integer) value);
+                if (itemKey != null) {
+                    state.put(key, itemKey);
+                } else {
+                    state.remove(key);
+                }
+            }
+        }
+    }
+
+    private SharedPreferences legacy(String name) {
+        return appContext.getSharedPreferences(name, Context.MODE_PRIVATE);
+    }
+
+    private static void copyInt(Transaction tx, SharedPreferences prefs, String from, String to) {
+        if (prefs.contains(from)) {
+            tx.putInt(to, prefs.getInt(from, 0));
+        }
+    }
+
+    private static void copyString(Transaction tx, SharedPreferences prefs, String from, String to) {
+        if (prefs.contains(from)) {
+            tx.putString(to, prefs.getString(from, ""));
+        }
+    }
+}
@@ -17,6 +17,16 @@ public class MainApplication extends Application {
     public void onCreate() {
         super.onCreate();
 
+        // Read (and if needed migrate) app_state.bin off the main thread
+        // before the first screen asks for it
+        KeyValueStore.get(this);
+
+        // Find the music tracks off the main thread before anything plays
+        TrackRegistry.load(this);
+
+        // Decode the UI sound effects once
+        SoundEffects.load(this);
+
         // Register activity lifecycle callbacks
         registerActivityLifecycleCallbacks(new ActivityLifecycleCallbacks() {
             @Override
@@ -74,6 +84,7 @@ public class MainApplication extends Application {
         // Fully reset music when app is terminated
         android.util.Log.d("MusicManager", "App terminated - Resetting music");
         MusicManager.resetMusic();
+        SoundEffects.release();
     }
 
     @Override
@@ -81,16 +92,24 @@ public class MainApplication extends Application {
         super.onLowMemory();
         // Pause music on low memory
         MusicManager.pauseMusic();
+        MusicManager.releaseStandbyPlayers();
+        BitmapCache.clear();
     }
 
     @Override
     public void onTrimMemory(int level) {
         super.onTrimMemory(level);
+        BitmapCache.onTrimMemory(level);
+
         // Only stop if system is critically low on memory
         if (level >= TRIM_MEMORY_COMPLETE) {
             MusicManager.stopMusic();
         } else if (level >= TRIM_MEMORY_MODERATE) {
             MusicManager.pauseMusic();
+            MusicManager.releaseStandbyPlayers();
+        } else if (level >= TRIM_MEMORY_BACKGROUND) {
+            // Preloaded tracks are cheap to prepare again
+            MusicManager.releaseStandbyPlayers();
         }
     }
 }
\ No newline at end of file
@@ -200,11 +200,11 @@ public class MoodActivity extends BaseActivity {
                                    ImageView emoji4, ImageView emoji5) {
         int[] emojiResources = "male".equalsIgnoreCase(currentGender) ? MALE_EMOJIS : FEMALE_EMOJIS;
 
-        emoji1.setImageResource(emojiResources[0]);
-        emoji2.setImageResource(emojiResources[1]);
-        emoji3.setImageResource(emojiResources[2]);
-        emoji4.setImageResource(emojiResources[3]);
-        emoji5.setImageResource(emojiResources[4]);
+        BitmapLoader.load(emoji1, emojiResources[0]);
+        BitmapLoader.load(emoji2, emojiResources[1]);
+        BitmapLoader.load(emoji3, emojiResources[2]);
+        BitmapLoader.load(emoji4, emojiResources[3]);
+        BitmapLoader.load(emoji5, emojiResources[4]);
     }
 
     /**
@@ -213,7 +213,7 @@ public class MoodActivity extends BaseActivity {
     private void initializePetImage() {
         if (mainPetImage != null) {
             int[] petEmotions = "male".equalsIgnoreCase(currentGender) ? MALE_PET_EMOTIONS : FEMALE_PET_EMOTIONS;
-            mainPetImage.setImageResource(petEmotions[0]); // 0 = neutral emotion
+            BitmapLoader.load(mainPetImage, petEmotions[0]); // 0 = neutral emotion
         }
     }
 
@@ -230,6 +230,7 @@ public class MoodActivity extends BaseActivity {
             }
 
             // Animate current selection
+            SoundEffects.play(SoundEffects.SELECT);
             animateEmojiPopUp(emojiView);
 
             // Update pet emotion
@@ -278,7 +279,7 @@ public class MoodActivity extends BaseActivity {
     private void updatePetEmotion(int moodIndex) {
         if (mainPetImage != null) {
             int[] petEmotions = "male".equalsIgnoreCase(currentGender) ? MALE_PET_EMOTIONS : FEMALE_PET_EMOTIONS;
-            mainPetImage.setImageResource(petEmotions[moodIndex]);
+            BitmapLoader.load(mainPetImage, petEmotions[moodIndex]);
         }
     }
 }
\ No newline at end of file
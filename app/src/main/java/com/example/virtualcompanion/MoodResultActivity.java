@@ -74,11 +74,7 @@ public class MoodResultActivity extends BaseActivity {
         TextView moodMessage = findViewById(R.id.moodMessage);
 
         if (resultPetBase != null) {
-            resultPetBase.setImageResource(emotions[moodIndex]);
-        }
-
-        if (emotionOverlay != null) {
-            emotionOverlay.setImageResource((overlays[moodIndex]));
+            BitmapLoader.load(resultPetBase, emotions[moodIndex]);
         }
 
         if (resultMoodLabel != null) {
@@ -112,20 +108,15 @@ public class MoodResultActivity extends BaseActivity {
             }
         }
 
-        // ================= OUTFIT LAYERS =================
-        try {
-            ImageView topLayer = findViewById(R.id.topLayer);
-            ImageView bottomLayer = findViewById(R.id.bottomLayer);
-            ImageView hatLayer = findViewById(R.id.hatLayer);
-            ImageView glassesLayer = findViewById(R.id.glassesLayer);
-
-            // Load saved outfits
-            loadOutfit(topLayer, OutfitManager.getTop(this));
-            loadOutfit(bottomLayer, OutfitManager.getBottom(this));
-            loadOutfit(hatLayer, OutfitManager.getHat(this));
-            loadOutfit(glassesLayer, OutfitManager.getGlasses(this));
-        } catch (Exception e) {
-            // Outfit layers not in layout, skip
+        // ================= PET =================
+        // Emotion + outfit as one composited bitmap (outfit read off the main thread)
+        if (emotionOverlay != null) {
+            int petBase = overlays[moodIndex];
+            OutfitManager.getAsync(this, outfit -> {
+                if (!isDestroyed()) {
+                    AvatarRenderer.render(emotionOverlay, petBase, outfit);
+                }
+            });
         }
 
         // ================= COIN DISPLAY =================
@@ -209,17 +200,12 @@ public class MoodResultActivity extends BaseActivity {
         }
     }
 
-    /**
-     * Load outfit layer from OutfitManager
-     */
-    private void loadOutfit(ImageView layer, int resId) {
-        if (layer == null) return;
-
-        if (resId == 0) {
-            layer.setVisibility(ImageView.GONE);
-        } else {
-            layer.setImageResource(resId);
-            layer.setVisibility(ImageView.VISIBLE);
+    @Override
+    protected void onDestroy() {
+        super.onDestroy();
+        ImageView emotionOverlay = findViewById(R.id.emotionOverlay);
+        if (emotionOverlay != null) {
+            AvatarRenderer.cancel(emotionOverlay);
         }
     }
-}
\ No newline at end of file
+}
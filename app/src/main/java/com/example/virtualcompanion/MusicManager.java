@@ -1,10 +1,31 @@
 package com.example.virtualcompanion;
 
 import android.content.Context;
-import android.content.res.Resources;
 import android.media.MediaPlayer;
+import android.os.Handler;
+import android.os.HandlerThread;
+import android.os.Message;
+import android.os.Process;
 import android.util.Log;
 
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * MusicManager
+ *
+ * Background and quest music. The public methods only post a command to
+ * the "music" thread and return - nothing here waits on a MediaPlayer.
+ * - Player state lives on the music thread (no locks); the state machine
+ *   below decides what each command does
+ * - A pause and a resume that cancel out are dropped while still queued
+ * - Players are prepared off that thread, kept warm in a small pool
+ *   and crossfaded on track switches
+ * - Quest tracks loop from decoded PCM (PcmLoopPlayer) once PcmLoopCache
+ *   has decoded them; until then MediaPlayer plays them
+ */
 public class MusicManager {
 
     private static final String TAG = "MusicManager";
@@ -12,13 +33,12 @@ public class MusicManager {
     // Consistent volume level for all music tracks (0.0f to 1.0f)
     private static final float MUSIC_VOLUME = 0.5f; // 50% volume - adjust this value as needed
 
-    private static MediaPlayer mediaPlayer;
-    private static boolean isMusicEnabled = true;
-    private static boolean isInitialized = false;
-    private static int currentTrack = -1;
-    private static int previousTrack = -1;
-    private static int previousPosition = 0; // Save playback position
-    private static int currentPosition = 0; // Current playback position when paused
+    // Players kept prepared besides the playing one (quest <-> background)
+    private static final int MAX_STANDBY = 2;
+
+    // Crossfade between the outgoing and incoming track
+    private static final int FADE_MS = 800;
+    private static final int FADE_STEP_MS = 25;
 
     // Music track constants
     public static final int TRACK_BACKGROUND = R.raw.background_music;
@@ -30,18 +50,6 @@ public class MusicManager {
     public static final int TRACK_QUEST_ANXIOUS = R.raw.quest_anxious;
     public static final int TRACK_QUEST_NEUTRAL = R.raw.quest_neutral;
 
-    /**
-     * Check if a resource exists
-     */
-    private static boolean resourceExists(Context context, int resId) {
-        try {
-            context.getResources().openRawResource(resId);
-            return true;
-        } catch (Resources.NotFoundException e) {
-            return false;
-        }
-    }
-
     /**
      * Check if a track is a quest track
      */
@@ -86,319 +94,782 @@ public class MusicManager {
         }
     }
 
+    // ================= STATE MACHINE =================
+
+    /**
+     * What the active track is doing
+     */
+    private enum State {
+        IDLE,       // no player (never started, stopped or reset)
+        PREPARING,  // player not ready yet - starts as soon as it is
+        PLAYING,
+        PAUSED      // player and position kept
+    }
+
+    // Commands that are coalesced while queued (everything else is posted as-is)
+    private static final int CMD_PAUSE = 1;
+    private static final int CMD_RESUME = 2;
+    private static final int CMD_RESUME_CURRENT = 3;   // obj = application context
+
+    private static final Handler handler;
+
+    static {
+        HandlerThread thread = new HandlerThread("music", Process.THREAD_PRIORITY_AUDIO);
+        thread.start();
+        handler = new Handler(thread.getLooper(), MusicManager::handleCommand);
+    }
+
+    // MediaPlayer setup (container parse, decoder) runs here, not on the music thread
+    private static final ExecutorService preparer = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "music-prepare");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    // Read from any thread, written on the music thread (isMusicEnabled: by the caller)
+    private static volatile State state = State.IDLE;
+    private static volatile int currentTrack = -1;
+    private static volatile boolean isMusicEnabled = true;
+
+    // Music thread only
+    private static Voice active;                                        // the track that is (or will be) playing
+    private static final ArrayList<Voice> standby = new ArrayList<>();  // oldest first
+    private static final ArrayList<Voice> fading = new ArrayList<>();
+    private static float musicVolume = MUSIC_VOLUME;
+    private static int previousTrack = -1;
+    private static int previousPosition = 0; // Save playback position
+    private static int currentPosition = 0; // Current playback position when paused
+
+    private static final Runnable fadeStep = MusicManager::stepFades;
+    private static boolean fadeScheduled;
+
+    // ================= PUBLIC API =================
+
     /**
      * Start quest music and save the current track to restore later
      */
-    public static synchronized void startQuestMusic(Context context, String mood) {
+    public static void startQuestMusic(Context context, String mood) {
+        Context appContext = context.getApplicationContext();
+        handler.post(() -> doStartQuestMusic(appContext, mood));
+    }
+
+    /**
+     * Restore the music that was playing before the quest
+     */
+    public static void restorePreQuestMusic(Context context) {
+        Context appContext = context.getApplicationContext();
+        handler.post(() -> doRestorePreQuestMusic(appContext));
+    }
+
+    /**
+     * Get the quest track for a mood ready while the quest list is showing
+     */
+    public static void preloadQuestMusic(Context context, String mood) {
+        Context appContext = context.getApplicationContext();
+        handler.post(() -> doPreload(appContext, resolveQuestTrack(appContext, mood)));
+    }
+
+    /**
+     * Initialize and start music with specific track
+     */
+    public static void startMusic(Context context, int trackResId) {
+        Context appContext = context.getApplicationContext();
+        handler.post(() -> doStartMusic(appContext, trackResId));
+    }
+
+    /**
+     * Start default background music
+     */
+    public static void startMusic(Context context) {
+        Log.d(TAG, "Starting default background music");
+        startMusic(context, TRACK_BACKGROUND);
+    }
+
+    /**
+     * Pause music and save position
+     */
+    public static void pauseMusic() {
+        send(CMD_PAUSE, null);
+    }
+
+    /**
+     * Resume music from saved position
+     */
+    public static void resumeMusic() {
+        send(CMD_RESUME, null);
+    }
+
+    /**
+     * Resume current track from where it was (after app returns from background)
+     */
+    public static void resumeCurrentTrack(Context context) {
+        send(CMD_RESUME_CURRENT, context.getApplicationContext());
+    }
+
+    /**
+     * Stop fully (when app exits or goes to background) - PRESERVES TRACK INFO
+     */
+    public static void stopMusic() {
+        handler.removeMessages(CMD_RESUME);
+        handler.post(MusicManager::doStopMusic);
+    }
+
+    /**
+     * Fully reset music (only call when app is completely closed)
+     */
+    public static void resetMusic() {
+        handler.removeMessages(CMD_PAUSE);
+        handler.removeMessages(CMD_RESUME);
+        handler.removeMessages(CMD_RESUME_CURRENT);
+        handler.post(MusicManager::doResetMusic);
+    }
+
+    /**
+     * Drop the preloaded players that aren't playing (memory is low)
+     */
+    public static void releaseStandbyPlayers() {
+        handler.post(MusicManager::doReleaseStandby);
+    }
+
+    /**
+     * Enable / Disable music
+     */
+    public static void setMusicEnabled(boolean enabled) {
+        isMusicEnabled = enabled;
+        Log.d(TAG, "Music enabled: " + enabled);
+
+        if (!enabled) {
+            pauseMusic();
+        } else {
+            resumeMusic();
+        }
+    }
+
+    public static boolean isMusicEnabled() {
+        return isMusicEnabled;
+    }
+
+    /**
+     * Check if playing (or about to, once its player is ready)
+     */
+    public static boolean isPlaying() {
+        return state == State.PLAYING;
+    }
+
+    /**
+     * Get current track
+     */
+    public static int getCurrentTrack() {
+        return currentTrack;
+    }
+
+    /**
+     * Set volume dynamically (optional - for future use)
+     * @param volume Volume level from 0.0f (silent) to 1.0f (full)
+     */
+    public static void setVolume(float volume) {
+        float clampedVolume = Math.max(0.0f, Math.min(1.0f, volume));
+        handler.post(() -> doSetVolume(clampedVolume));
+    }
+
+    /**
+     * Post a pause / resume. The latest one wins: a queued opposite that
+     * hasn't run yet is dropped, so pause-then-resume never touches the player.
+     */
+    private static void send(int command, Object arg) {
+        if (command == CMD_PAUSE) {
+            handler.removeMessages(CMD_RESUME);
+        } else {
+            handler.removeMessages(CMD_PAUSE);
+        }
+        handler.removeMessages(command);
+        handler.obtainMessage(command, arg).sendToTarget();
+    }
+
+    private static boolean handleCommand(Message msg) {
+        switch (msg.what) {
+            case CMD_PAUSE:
+                doPauseMusic();
+                return true;
+            case CMD_RESUME:
+                doResumeMusic();
+                return true;
+            case CMD_RESUME_CURRENT:
+                doResumeCurrentTrack((Context) msg.obj);
+                return true;
+            default:
+                return false;
+        }
+    }
+
+    private static void moveTo(State next) {
+        if (state != next) {
+            Log.d(TAG, "State " + state + " -> " + next);
+            state = next;
+        }
+    }
+
+    // ================= COMMANDS (music thread) =================
+
+    private static void doStartQuestMusic(Context context, String mood) {
         // Save what's currently playing before switching to quest music
         if (currentTrack != -1 && !isQuestTrack(currentTrack)) {
             previousTrack = currentTrack;
             // Save current playback position
-            if (mediaPlayer != null) {
-                try {
-                    previousPosition = mediaPlayer.getCurrentPosition();
-                    Log.d(TAG, "Saved previous track: " + previousTrack + " at position: " + previousPosition);
-                } catch (Exception e) {
-                    Log.e(TAG, "Error getting current position: " + e.getMessage());
-                    previousPosition = 0;
-                }
-            }
+            previousPosition = positionOf(active);
+            Log.d(TAG, "Saved previous track: " + previousTrack + " at position: " + previousPosition);
         }
 
-        int questTrack = getQuestTrackForMood(mood);
-
-        // Check if the quest track exists, if not use background music as fallback
-        if (!resourceExists(context, questTrack)) {
-            Log.w(TAG, "Quest track " + questTrack + " not found, using background music as fallback");
-            questTrack = TRACK_BACKGROUND;
-        }
+        doStartMusic(context, resolveQuestTrack(context, mood));
 
-        startMusic(context, questTrack);
+        // The track we come back to stays warm (the one we left is parked, paused)
+        doPreload(context, previousTrack != -1 ? previousTrack : TRACK_BACKGROUND);
     }
 
-    /**
-     * Restore the music that was playing before the quest
-     */
-    public static synchronized void restorePreQuestMusic(Context context) {
+    private static void doRestorePreQuestMusic(Context context) {
         if (previousTrack != -1) {
             Log.d(TAG, "Restoring pre-quest track: " + previousTrack + " at position: " + previousPosition);
-            startMusicAtPosition(context, previousTrack, previousPosition);
+
+            // Its parked player paused right where it faded out - no seek, no rebuffering
+            int position = hasPreparedStandby(previousTrack) ? -1 : previousPosition;
+            startMusicAtPosition(context, previousTrack, position);
             previousTrack = -1;
             previousPosition = 0;
         } else {
             Log.d(TAG, "No previous track saved, starting background music");
-            startMusic(context, TRACK_BACKGROUND);
+            doStartMusic(context, TRACK_BACKGROUND);
         }
     }
 
+    private static void doPreload(Context context, int trackResId) {
+        if (!isMusicEnabled) return;
+        if (active != null && active.track == trackResId) return;
+
+        Voice voice = takeStandby(trackResId);
+        if (voice == null) {
+            voice = newVoice(context, trackResId);
+            if (voice == null) return;
+            Log.d(TAG, "Preloading track: " + trackResId);
+        }
+        park(voice);
+    }
+
+    /**
+     * Quest track for a mood - background music if that track is missing
+     * (looked up once in TrackRegistry)
+     */
+    private static int resolveQuestTrack(Context context, String mood) {
+        return TrackRegistry.get(context).questTrackFor(mood);
+    }
+
     /**
      * Start music at a specific position (for seamless restoration)
      */
-    private static synchronized void startMusicAtPosition(Context context, int trackResId, int position) {
+    private static void startMusicAtPosition(Context context, int trackResId, int position) {
         if (!isMusicEnabled) {
             Log.d(TAG, "Music is disabled, not starting");
             return;
         }
 
-        try {
-            // Stop current music
-            if (isInitialized) {
-                stopMusicInternal();
-            }
-
-            Log.d(TAG, "Creating MediaPlayer for track: " + trackResId + " at position: " + position);
+        handoff(context, trackResId, position);
+    }
 
-            mediaPlayer = MediaPlayer.create(
-                    context.getApplicationContext(),
-                    trackResId
-            );
+    private static void doStartMusic(Context context, int trackResId) {
+        if (!isMusicEnabled) {
+            Log.d(TAG, "Music is disabled, not starting");
+            return;
+        }
 
-            if (mediaPlayer == null) {
-                Log.e(TAG, "Failed to create MediaPlayer for track: " + trackResId);
+        // Same track: keep its position, just make sure it plays
+        if (active != null && active.track == trackResId) {
+            if (state == State.PLAYING) {
+                Log.d(TAG, "Same track already playing: " + trackResId);
                 return;
             }
+            play(active, -1);
+            return;
+        }
 
-            Log.d(TAG, "MediaPlayer created successfully");
+        handoff(context, trackResId, 0);
+    }
 
-            // Loop forever
-            mediaPlayer.setLooping(true);
+    private static void doPauseMusic() {
+        // Anything still fading out stops now too
+        silenceFading();
 
-            // Set consistent volume for all tracks
-            mediaPlayer.setVolume(MUSIC_VOLUME, MUSIC_VOLUME);
-            Log.d(TAG, "Volume set to: " + MUSIC_VOLUME);
+        if (state == State.PLAYING) {
+            currentPosition = positionOf(active);
+            pauseQuietly(active);
+            Log.d(TAG, "Music paused at position: " + currentPosition);
+        }
+        if (state == State.PLAYING || state == State.PREPARING) {
+            moveTo(State.PAUSED);
+        }
+    }
 
-            // Seek to saved position
-            if (position > 0 && position < mediaPlayer.getDuration()) {
-                mediaPlayer.seekTo(position);
-                Log.d(TAG, "Seeked to position: " + position);
-            }
+    private static void doResumeMusic() {
+        if (state != State.PAUSED || !isMusicEnabled) return;
 
-            currentTrack = trackResId;
-            isInitialized = true;
+        // Restore position if we have one saved
+        play(active, currentPosition > 0 ? currentPosition : -1);
+        Log.d(TAG, "Music resumed");
+    }
 
-            mediaPlayer.start();
-            Log.d(TAG, "Music started for track: " + trackResId);
+    private static void doResumeCurrentTrack(Context context) {
+        if (currentTrack != -1) {
+            Log.d(TAG, "Resuming current track: " + currentTrack + " at position: " + currentPosition);
+            startMusicAtPosition(context, currentTrack, currentPosition);
+        } else {
+            Log.d(TAG, "No current track, starting background music");
+            doStartMusic(context, TRACK_BACKGROUND);
+        }
+    }
 
-        } catch (Exception e) {
-            Log.e(TAG, "Error starting music at position: " + e.getMessage());
-            e.printStackTrace();
+    private static void doStopMusic() {
+        // Save current position before stopping
+        if (active != null) {
+            currentPosition = positionOf(active);
+            Log.d(TAG, "Saving position before stop: " + currentPosition);
         }
+
+        releaseAll();
+        // DON'T RESET currentTrack, previousTrack, previousPosition
+        // This allows resuming from where we left off
+        Log.d(TAG, "Music stopped (track info preserved)");
     }
 
-    /**
-     * Initialize and start music with specific track
-     */
-    public static synchronized void startMusic(Context context, int trackResId) {
+    private static void doResetMusic() {
+        releaseAll();
+        currentTrack = -1;
+        previousTrack = -1;
+        previousPosition = 0;
+        currentPosition = 0;
+        Log.d(TAG, "Music fully reset");
+    }
 
-        if (!isMusicEnabled) {
-            Log.d(TAG, "Music is disabled, not starting");
-            return;
+    private static void doReleaseStandby() {
+        for (Voice voice : standby) {
+            release(voice);
         }
+        standby.clear();
+        Log.d(TAG, "Standby players released");
+    }
 
-        try {
-            // If same track is already playing, do nothing
-            if (isInitialized && currentTrack == trackResId && mediaPlayer != null && mediaPlayer.isPlaying()) {
-                Log.d(TAG, "Same track already playing: " + trackResId);
-                return;
-            }
+    private static void doSetVolume(float volume) {
+        musicVolume = volume;
 
-            // Stop current music if different track
-            if (isInitialized && currentTrack != trackResId) {
-                Log.d(TAG, "Switching from track " + currentTrack + " to " + trackResId);
-                stopMusicInternal();
+        if (active != null && active.prepared) {
+            if (fading.contains(active)) {
+                active.targetVolume = musicVolume;
+            } else {
+                setGain(active, musicVolume);
             }
+        }
+        Log.d(TAG, "Volume changed to: " + musicVolume);
+    }
 
-            if (!isInitialized || currentTrack != trackResId) {
+    // ================= PLAYER POOL =================
 
-                Log.d(TAG, "Creating MediaPlayer for track: " + trackResId);
+    /**
+     * What a Voice plays through - MediaPlayer's own methods, so a plain
+     * (looping) MediaPlayer is one, and so is PcmLoopPlayer
+     */
+    interface TrackPlayer {
+        void start();
 
-                mediaPlayer = MediaPlayer.create(
-                        context.getApplicationContext(),
-                        trackResId
-                );
+        void pause();
 
-                if (mediaPlayer == null) {
-                    Log.e(TAG, "Failed to create MediaPlayer for track: " + trackResId);
-                    return;
-                }
+        boolean isPlaying();
 
-                Log.d(TAG, "MediaPlayer created successfully");
+        int getCurrentPosition();
 
-                // Loop forever
-                mediaPlayer.setLooping(true);
+        int getDuration();
 
-                // Set consistent volume for all tracks
-                mediaPlayer.setVolume(MUSIC_VOLUME, MUSIC_VOLUME);
-                Log.d(TAG, "Volume set to: " + MUSIC_VOLUME);
+        void seekTo(int msec);
 
-                // Extra safety
-                mediaPlayer.setOnCompletionListener(mp -> {
-                    mp.seekTo(0);
-                    mp.start();
-                });
+        void setVolume(float left, float right);
 
-                currentTrack = trackResId;
-                isInitialized = true;
-            }
-
-            if (!mediaPlayer.isPlaying()) {
-                mediaPlayer.start();
-                Log.d(TAG, "Music started for track: " + trackResId);
-            }
+        void release();
+    }
 
-        } catch (Exception e) {
-            Log.e(TAG, "Error starting music: " + e.getMessage());
-            e.printStackTrace();
-        }
+    private static final class LoopingMediaPlayer extends MediaPlayer implements TrackPlayer {
     }
 
     /**
-     * Start default background music
+     * One track's player, prepared off the music thread. All fields
+     * belong to the music thread.
      */
-    public static synchronized void startMusic(Context context) {
-        Log.d(TAG, "Starting default background music");
-        startMusic(context, TRACK_BACKGROUND);
+    private static final class Voice {
+        final int track;
+        final TrackRegistry.Track info;
+        TrackPlayer player;         // null until the prepare thread has opened the track
+        boolean prepared;
+        boolean released;
+        int startPosition = -1;     // seek here before starting (-1 = stay where it is)
+        boolean fadeIn;             // ramp up from silence when it starts
+
+        // Gain as last set on the player, and where a running fade is heading
+        float volume;
+        float targetVolume;
+
+        Voice(TrackRegistry.Track info) {
+            this.track = info.resId;
+            this.info = info;
+        }
     }
 
     /**
-     * Pause music and save position
+     * Make `trackResId` the playing track: take its preloaded player if there
+     * is one, fade the old one out and park it (paused, still prepared) for a
+     * quick way back
      */
-    public static synchronized void pauseMusic() {
-        try {
-            if (mediaPlayer != null && mediaPlayer.isPlaying()) {
-                currentPosition = mediaPlayer.getCurrentPosition();
-                mediaPlayer.pause();
-                Log.d(TAG, "Music paused at position: " + currentPosition);
+    private static void handoff(Context context, int trackResId, int position) {
+        boolean crossfade = false;
+
+        if (active == null || active.track != trackResId) {
+            Voice next = takeStandby(trackResId);
+            if (next == null) {
+                Log.d(TAG, "No preloaded player for track: " + trackResId + ", preparing");
+                next = newVoice(context, trackResId);
+                if (next == null) return;
+            } else {
+                Log.d(TAG, "Handing off to preloaded track: " + trackResId);
             }
-        } catch (Exception e) {
-            Log.e(TAG, "Error pausing music: " + e.getMessage());
+
+            if (active != null) {
+                Log.d(TAG, "Switching from track " + active.track + " to " + trackResId);
+                crossfade = isAudible(active);
+                park(active);
+            }
+            active = next;
         }
+
+        currentTrack = trackResId;
+        active.fadeIn = crossfade;
+        play(active, position);
     }
 
     /**
-     * Resume music from saved position
+     * Start the active voice now if it is prepared, otherwise as soon as it is
      */
-    public static synchronized void resumeMusic() {
+    private static void play(Voice voice, int position) {
+        voice.startPosition = position;
+
+        if (voice.prepared) {
+            startPrepared(voice);
+            moveTo(State.PLAYING);
+        } else {
+            moveTo(State.PREPARING);
+        }
+    }
+
+    private static void startPrepared(Voice voice) {
         try {
-            if (mediaPlayer != null && !mediaPlayer.isPlaying() && isMusicEnabled) {
-                // Restore position if we have one saved
-                if (currentPosition > 0) {
-                    mediaPlayer.seekTo(currentPosition);
-                    Log.d(TAG, "Resuming music at position: " + currentPosition);
+            int position = voice.startPosition;
+            // Registry duration for MediaPlayer (a PCM loop knows its own length)
+            int duration = voice.player instanceof LoopingMediaPlayer && voice.info.durationMs > 0
+                    ? voice.info.durationMs
+                    : voice.player.getDuration();
+            if (position >= 0 && position < duration
+                    && position != voice.player.getCurrentPosition()) {
+                voice.player.seekTo(position);
+                Log.d(TAG, "Seeked to position: " + position);
+            }
+            voice.startPosition = -1;
+
+            // A voice taken back mid fade-out ramps up from where it is
+            if (voice.fadeIn || fading.contains(voice)) {
+                if (!voice.player.isPlaying()) {
+                    setGain(voice, 0f);
                 }
-                mediaPlayer.start();
-                Log.d(TAG, "Music resumed");
+                fadeTo(voice, musicVolume);
+            } else {
+                setGain(voice, musicVolume);
             }
+            voice.fadeIn = false;
+
+            voice.player.start();
+            Log.d(TAG, "Music started for track: " + voice.track);
         } catch (Exception e) {
-            Log.e(TAG, "Error resuming music: " + e.getMessage());
+            Log.e(TAG, "Error starting music: " + e.getMessage());
         }
     }
 
     /**
-     * Internal method to stop music without resetting flags
+     * A voice for a registered track that exists, already preparing (null if missing)
      */
-    private static synchronized void stopMusicInternal() {
-        try {
-            if (mediaPlayer != null) {
-                if (mediaPlayer.isPlaying()) {
-                    mediaPlayer.stop();
-                }
-                mediaPlayer.release();
-                mediaPlayer = null;
-                isInitialized = false;
-                Log.d(TAG, "Music stopped internally");
-            }
-        } catch (Exception e) {
-            Log.e(TAG, "Error stopping music internally: " + e.getMessage());
+    private static Voice newVoice(Context context, int trackResId) {
+        TrackRegistry.Track info = TrackRegistry.get(context).track(trackResId);
+        if (info == null || !info.exists) {
+            Log.e(TAG, "Track not found: " + trackResId);
+            return null;
         }
+
+        Voice voice = new Voice(info);
+        prepare(context, voice);
+        return voice;
     }
 
     /**
-     * Stop fully (when app exits or goes to background) - PRESERVES TRACK INFO
+     * Set the data source on the prepare thread, then prepareAsync back on
+     * the music thread. Player callbacks come in on the main thread and are
+     * posted over, so every Voice field stays on the music thread.
+     * Loopable tracks get a PcmLoopPlayer instead once they are decoded.
      */
-    public static synchronized void stopMusic() {
-        // Save current position before stopping
-        if (mediaPlayer != null) {
+    private static void prepare(Context context, Voice voice) {
+        TrackRegistry.Track info = voice.info;
+        Context appContext = context.getApplicationContext();
+
+        preparer.execute(() -> {
+            if (info.loopable && prepareLoop(appContext, voice)) return;
+
+            LoopingMediaPlayer player = new LoopingMediaPlayer();
+
+            // Registry descriptors stay open; setDataSource takes its own copy
             try {
-                currentPosition = mediaPlayer.getCurrentPosition();
-                Log.d(TAG, "Saving position before stop: " + currentPosition);
+                player.setDataSource(info.afd.getFileDescriptor(), info.offset, info.length);
             } catch (Exception e) {
-                currentPosition = 0;
+                Log.e(TAG, "Failed to open track: " + voice.track + " - " + e.getMessage());
+                player.release();
+                handler.post(() -> discard(voice));
+                return;
             }
-        }
 
-        stopMusicInternal();
-        // DON'T RESET currentTrack, previousTrack, previousPosition
-        // This allows resuming from where we left off
-        Log.d(TAG, "Music stopped (track info preserved)");
+            // Loop forever; volume is set when it starts
+            player.setLooping(true);
+
+            handler.post(() -> {
+                if (voice.released) {
+                    player.release();
+                    return;
+                }
+
+                voice.player = player;
+                player.setOnPreparedListener(mp -> handler.post(() -> onPrepared(voice)));
+                player.setOnErrorListener((mp, what, extra) -> {
+                    Log.e(TAG, "MediaPlayer error " + what + "/" + extra + " on track: " + voice.track);
+                    handler.post(() -> discard(voice));
+                    return true;
+                });
+                player.prepareAsync();
+            });
+        });
     }
 
     /**
-     * Fully reset music (only call when app is completely closed)
+     * The track's cached loop, ready to play. False if it isn't decoded yet
+     * (decoding starts in the background for next time) or can't play -
+     * MediaPlayer takes over either way, without waiting on a decode.
      */
-    public static synchronized void resetMusic() {
-        stopMusicInternal();
-        currentTrack = -1;
-        previousTrack = -1;
-        previousPosition = 0;
-        currentPosition = 0;
-        Log.d(TAG, "Music fully reset");
+    private static boolean prepareLoop(Context context, Voice voice) {
+        PcmLoopPlayer loop;
+        try {
+            PcmLoopCache.Loop cached = PcmLoopCache.loadCached(context, voice.info);
+            if (cached == null) {
+                PcmLoopCache.decodeInBackground(context, voice.info);
+                return false;
+            }
+            loop = new PcmLoopPlayer(cached);
+        } catch (IOException e) {
+            Log.w(TAG, "No gapless loop for " + voice.info.name + ", using MediaPlayer: " + e.getMessage());
+            return false;
+        }
+
+        // Same as a MediaPlayer error: the voice goes, the next start prepares again
+        loop.setOnErrorListener((player, error) -> {
+            Log.e(TAG, "PcmLoopPlayer error " + error + " on track: " + voice.track);
+            handler.post(() -> discard(voice));
+        });
+
+        handler.post(() -> {
+            if (voice.released) {
+                loop.release();
+                return;
+            }
+
+            voice.player = loop;
+            onPrepared(voice);
+        });
+        return true;
     }
 
-    /**
-     * Resume current track from where it was (after app returns from background)
-     */
-    public static synchronized void resumeCurrentTrack(Context context) {
-        if (currentTrack != -1) {
-            Log.d(TAG, "Resuming current track: " + currentTrack + " at position: " + currentPosition);
-            startMusicAtPosition(context, currentTrack, currentPosition);
-        } else {
-            Log.d(TAG, "No current track, starting background music");
-            startMusic(context, TRACK_BACKGROUND);
+    private static void onPrepared(Voice voice) {
+        if (voice.released) return;
+
+        voice.prepared = true;
+        Log.d(TAG, "Track prepared: " + voice.track);
+
+        if (voice == active && state == State.PREPARING) {
+            if (isMusicEnabled) {
+                startPrepared(voice);
+                moveTo(State.PLAYING);
+            } else {
+                moveTo(State.PAUSED);
+            }
         }
     }
 
     /**
-     * Enable / Disable music
+     * Keep a voice prepared for later - fading out (then paused) if it is
+     * playing; the oldest standby goes when over the limit
      */
-    public static void setMusicEnabled(boolean enabled) {
-        isMusicEnabled = enabled;
-        Log.d(TAG, "Music enabled: " + enabled);
+    private static void park(Voice voice) {
+        if (isAudible(voice)) {
+            fadeTo(voice, 0f);
+        }
 
-        if (!enabled) {
-            pauseMusic();
-        } else {
-            resumeMusic();
+        standby.remove(voice);
+        standby.add(voice);
+        while (standby.size() > MAX_STANDBY) {
+            release(standby.remove(0));
         }
     }
 
-    public static boolean isMusicEnabled() {
-        return isMusicEnabled;
+    private static Voice takeStandby(int trackResId) {
+        for (int i = 0; i < standby.size(); i++) {
+            if (standby.get(i).track == trackResId) {
+                return standby.remove(i);
+            }
+        }
+        return null;
+    }
+
+    private static boolean hasPreparedStandby(int trackResId) {
+        for (Voice voice : standby) {
+            if (voice.track == trackResId && voice.prepared) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static boolean isAudible(Voice voice) {
+        try {
+            return voice.prepared && voice.player.isPlaying();
+        } catch (IllegalStateException e) {
+            return false;
+        }
+    }
+
+    private static int positionOf(Voice voice) {
+        if (voice == null) return 0;
+        if (!voice.prepared) return Math.max(voice.startPosition, 0);
+
+        try {
+            return voice.player.getCurrentPosition();
+        } catch (IllegalStateException e) {
+            Log.e(TAG, "Error getting current position: " + e.getMessage());
+            return 0;
+        }
     }
 
     /**
-     * Check if playing
+     * A voice that failed to open or play - drop it wherever it is
      */
-    public static boolean isPlaying() {
-        return mediaPlayer != null && mediaPlayer.isPlaying();
+    private static void discard(Voice voice) {
+        release(voice);
+        standby.remove(voice);
+        if (voice == active) {
+            active = null;
+            moveTo(State.IDLE);
+        }
+    }
+
+    private static void release(Voice voice) {
+        voice.released = true;
+        fading.remove(voice);
+        if (voice.player != null) {
+            voice.player.release();
+            voice.player = null;
+        }
+        voice.prepared = false;
     }
 
+    private static void releaseAll() {
+        if (active != null) {
+            release(active);
+            active = null;
+        }
+        doReleaseStandby();
+        moveTo(State.IDLE);
+        Log.d(TAG, "Music stopped internally");
+    }
+
+    // ================= CROSSFADE =================
+
     /**
-     * Get current track
+     * Ramp a voice towards `target` over FADE_MS (full scale). Reaching 0
+     * pauses it, so a faded-out track keeps its position.
      */
-    public static int getCurrentTrack() {
-        return currentTrack;
+    private static void fadeTo(Voice voice, float target) {
+        voice.targetVolume = target;
+        if (!fading.contains(voice)) {
+            fading.add(voice);
+        }
+
+        // One tick chain on the music thread while anything is fading
+        if (!fadeScheduled) {
+            fadeScheduled = true;
+            handler.postDelayed(fadeStep, FADE_STEP_MS);
+        }
+    }
+
+    private static void stepFades() {
+        fadeScheduled = false;
+        float step = Math.max(musicVolume, 0.01f) * FADE_STEP_MS / FADE_MS;
+
+        for (int i = fading.size() - 1; i >= 0; i--) {
+            Voice voice = fading.get(i);
+            float delta = voice.targetVolume - voice.volume;
+            float volume = Math.abs(delta) <= step
+                    ? voice.targetVolume
+                    : voice.volume + Math.signum(delta) * step;
+
+            setGain(voice, volume);
+            if (volume != voice.targetVolume) continue;
+
+            fading.remove(i);
+            if (volume == 0f && voice != active) {
+                pauseQuietly(voice);
+                Log.d(TAG, "Faded out track: " + voice.track);
+            }
+        }
+
+        if (!fading.isEmpty()) {
+            fadeScheduled = true;
+            handler.postDelayed(fadeStep, FADE_STEP_MS);
+        }
     }
 
     /**
-     * Set volume dynamically (optional - for future use)
-     * @param volume Volume level from 0.0f (silent) to 1.0f (full)
+     * Stop every fade-out right away (app going to the background)
      */
-    public static synchronized void setVolume(float volume) {
-        if (mediaPlayer != null) {
-            float clampedVolume = Math.max(0.0f, Math.min(1.0f, volume));
-            mediaPlayer.setVolume(clampedVolume, clampedVolume);
-            Log.d(TAG, "Volume changed to: " + clampedVolume);
+    private static void silenceFading() {
+        for (Voice voice : fading) {
+            if (voice != active) {
+                setGain(voice, 0f);
+                pauseQuietly(voice);
+            }
+        }
+        fading.clear();
+    }
+
+    private static void setGain(Voice voice, float volume) {
+        voice.volume = volume;
+        try {
+            voice.player.setVolume(volume, volume);
+        } catch (IllegalStateException e) {
+            Log.e(TAG, "Error setting volume: " + e.getMessage());
+        }
+    }
+
+    private static void pauseQuietly(Voice voice) {
+        try {
+            if (voice.player.isPlaying()) {
+                voice.player.pause();
+            }
+        } catch (IllegalStateException e) {
+            Log.e(TAG, "Error pausing track " + voice.track + ": " + e.getMessage());
         }
     }
-}
\ No newline at end of file
+}
@@ -1,27 +1,21 @@
 package com.example.virtualcompanion;
 
 import android.content.Context;
-import android.content.SharedPreferences;
 
 public class NameManager {
 
-    private static final String PREF_NAME = "pet_data";
-    private static final String KEY_NAME = "pet_name";
-
-
-    private static SharedPreferences getPrefs(Context c) {
-        return c.getSharedPreferences(PREF_NAME, Context.MODE_PRIVATE);
-    }
+    // Stored in KeyValueStore (was the "pet_data" SharedPreferences file)
+    private static final String KEY_NAME = KeyValueStore.KEY_PET_NAME;
 
 
     // Save name
     public static void setName(Context c, String name) {
-        getPrefs(c).edit().putString(KEY_NAME, name).apply();
+        KeyValueStore.get(c).edit().putString(KEY_NAME, name).apply();
     }
 
 
     // Get name (default = ECHO)
     public static String getName(Context c) {
-        return getPrefs(c).getString(KEY_NAME, "ECHO");
+        return KeyValueStore.get(c).getString(KEY_NAME, "ECHO");
     }
 }
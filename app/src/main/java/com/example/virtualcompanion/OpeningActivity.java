@@ -13,6 +13,11 @@ import androidx.constraintlayout.widget.ConstraintLayout;
 
 public class OpeningActivity extends BaseActivity {
 
+    @Override
+    protected int getBackgroundResId() {
+        return R.drawable.bg_opening;
+    }
+
     @Override
     protected void onCreate(Bundle savedInstanceState) {
         super.onCreate(savedInstanceState);
@@ -26,12 +31,12 @@ public class OpeningActivity extends BaseActivity {
         android.util.Log.d("OpeningActivity", "========== APP RESTART - TESTING MODE ==========");
 
         // ================= TESTING MODE - FORCE COMPLETE RESET =================
-        // Step 1: Delete the entire database
-        boolean dbDeleted = this.deleteDatabase("virtual_companion.db");
+        // Step 1: Delete the entire database (closes it first, drops cached data)
+        DatabaseManager db = DatabaseManager.get(this);
+        boolean dbDeleted = db.deleteDatabase();
         android.util.Log.d("OpeningActivity", "Database deleted: " + dbDeleted);
 
-        // Step 2: Initialize database (creates fresh tables)
-        DatabaseManager db = DatabaseManager.get(this);
+        // Step 2: Database is recreated with fresh tables on next use
         android.util.Log.d("OpeningActivity", "Database recreated");
 
         // Step 3: Reset database data
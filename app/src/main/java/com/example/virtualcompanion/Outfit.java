@@ -0,0 +1,76 @@
+package com.example.virtualcompanion;
+
+/**
+ * Outfit
+ * What the pet is wearing - one equip drawable per slot (0 = nothing).
+ *
+ * Immutable: OutfitManager hands out the same snapshot to every screen
+ * until something is equipped, then replaces it with a new one.
+ */
+public final class Outfit {
+
+    public enum Slot {
+        TOP("top"), BOTTOM("bottom"), HAT("hat"), GLASSES("glasses");
+
+        // accessory.type value
+        public final String type;
+
+        Slot(String type) {
+            this.type = type;
+        }
+    }
+
+    public static final Outfit EMPTY = new Outfit(new int[Slot.values().length]);
+
+    // Indexed by Slot.ordinal()
+    private final int[] items;
+
+    private Outfit(int[] items) {
+        this.items = items;
+    }
+
+    static Outfit of(int top, int bottom, int hat, int glasses) {
+        return new Outfit(new int[]{top, bottom, hat, glasses});
+    }
+
+    public int get(Slot slot) {
+        return items[slot.ordinal()];
+    }
+
+    public int getTop() {
+        return items[Slot.TOP.ordinal()];
+    }
+
+    public int getBottom() {
+        return items[Slot.BOTTOM.ordinal()];
+    }
+
+    public int getHat() {
+        return items[Slot.HAT.ordinal()];
+    }
+
+    public int getGlasses() {
+        return items[Slot.GLASSES.ordinal()];
+    }
+
+    /**
+     * Copy with one slot changed (this one if nothing changes)
+     */
+    public Outfit with(Slot slot, int resId) {
+        if (items[slot.ordinal()] == resId) return this;
+
+        int[] changed = items.clone();
+        changed[slot.ordinal()] = resId;
+        return new Outfit(changed);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        return o instanceof Outfit && java.util.Arrays.equals(items, ((Outfit) o).items);
+    }
+
+    @Override
+    public int hashCode() {
+        return java.util.Arrays.hashCode(items);
+    }
+}
@@ -1,70 +1,169 @@
 package com.example.virtualcompanion;
 
 import android.content.Context;
-import android.content.SharedPreferences;
-
+import android.os.Handler;
+import android.os.Looper;
+
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * OutfitManager
+ * What the pet is wearing
+ *
+ * - Equipped items are stored in the accessory table (DatabaseManager, SHOP & WARDROBE)
+ * - get(): one Outfit snapshot, read with one query once per process
+ * - set(): one set-based UPDATE per slot
+ * - getAsync() / setAsync(): the same on DatabaseManager's threads, for
+ *   the main thread
+ * - OutfitListener: told (on the main thread) with the new snapshot,
+ *   so screens redraw without reading storage again
+ */
 public class OutfitManager {
 
-    private static final String PREF_NAME = "outfit_data";
+    /**
+     * Told on the main thread when the outfit changes
+     */
+    public interface OutfitListener {
+        void onOutfitChanged(Outfit outfit);
+    }
+
+    // Current outfit (null until first read); replaced, never changed
+    private static volatile Outfit current;
+
+    private static final CopyOnWriteArrayList<OutfitListener> listeners = new CopyOnWriteArrayList<>();
+    private static final Handler mainHandler = new Handler(Looper.getMainLooper());
+
+
+    // ================= SNAPSHOT =================
+
+    /**
+     * Current outfit (cached after the first call)
+     */
+    public static Outfit get(Context c) {
+        Outfit outfit = current;
+        if (outfit != null) return outfit;
+
+        synchronized (OutfitManager.class) {
+            outfit = current;
+            if (outfit == null) {
+                outfit = DatabaseManager.get(c).getEquippedOutfit();
+                current = outfit;
+            }
+            return outfit;
+        }
+    }
+
+    /**
+     * Current outfit, read on the reader pool unless it is cached.
+     * callback runs on the main thread.
+     */
+    public static void getAsync(Context c, DatabaseManager.Callback<Outfit> callback) {
+        Outfit outfit = current;
+        if (outfit != null) {
+            callback.onResult(outfit);
+            return;
+        }
+
+        DatabaseManager.get(c).read(() -> get(c), callback);
+    }
+
+    /**
+     * Change one slot (0 = take it off). Returns the outfit afterwards.
+     */
+    public static synchronized Outfit set(Context c, Outfit.Slot slot, int resId) {
+        Outfit before = get(c);
+        Outfit outfit = before.with(slot, resId);
+        if (outfit == before) return before;
+
+        // Only owned items can be equipped (taking one off always works)
+        boolean changed = DatabaseManager.get(c).equip(slot, ItemCatalog.keyForEquip(resId));
+        if (!changed && resId != 0) return before;
+
+        current = outfit;
+        notifyChanged(outfit);
+        return outfit;
+    }
+
+    /**
+     * set() on the writer thread; listeners hear about the change as usual,
+     * callback (may be null) gets the outfit afterwards on the main thread
+     */
+    public static void setAsync(Context c, Outfit.Slot slot, int resId, DatabaseManager.Callback<Outfit> callback) {
+        DatabaseManager.get(c).write(() -> set(c, slot, resId), callback);
+    }
 
-    private static final String KEY_TOP = "top";
-    private static final String KEY_BOTTOM = "bottom";
-    private static final String KEY_HAT = "hat";
-    private static final String KEY_GLASSES = "glasses";
+    // ================= LISTENERS =================
 
+    public static void addListener(OutfitListener listener) {
+        listeners.add(listener);
+    }
 
-    private static SharedPreferences getPrefs(Context context) {
-        return context.getSharedPreferences(PREF_NAME, Context.MODE_PRIVATE);
+    public static void removeListener(OutfitListener listener) {
+        listeners.remove(listener);
+    }
+
+    private static void notifyChanged(Outfit outfit) {
+        if (Looper.myLooper() == Looper.getMainLooper()) {
+            dispatch(outfit);
+        } else {
+            mainHandler.post(() -> dispatch(outfit));
+        }
+    }
+
+    private static void dispatch(Outfit outfit) {
+        for (OutfitListener listener : listeners) {
+            listener.onOutfitChanged(outfit);
+        }
     }
 
 
     // ================= RESET (for testing) =================
 
-    public static void resetAll(Context context) {
-        getPrefs(context).edit().clear().apply();
+    public static synchronized void resetAll(Context context) {
+        DatabaseManager.get(context).unequipAll();
+        current = Outfit.EMPTY;
+        notifyChanged(Outfit.EMPTY);
+    }
+
+    /**
+     * DatabaseManager reset the accessory table - reload on next get()
+     */
+    static void onOutfitReset() {
+        current = null;
     }
 
 
-    // ================= TOP =================
+    // ================= SINGLE SLOTS =================
 
     public static void setTop(Context c, int resId) {
-        getPrefs(c).edit().putInt(KEY_TOP, resId).apply();
+        set(c, Outfit.Slot.TOP, resId);
     }
 
     public static int getTop(Context c) {
-        return getPrefs(c).getInt(KEY_TOP, 0);
+        return get(c).getTop();
     }
 
-
-    // ================= BOTTOM =================
-
     public static void setBottom(Context c, int resId) {
-        getPrefs(c).edit().putInt(KEY_BOTTOM, resId).apply();
+        set(c, Outfit.Slot.BOTTOM, resId);
     }
 
     public static int getBottom(Context c) {
-        return getPrefs(c).getInt(KEY_BOTTOM, 0);
+        return get(c).getBottom();
     }
 
-
-    // ================= HAT =================
-
     public static void setHat(Context c, int resId) {
-        getPrefs(c).edit().putInt(KEY_HAT, resId).apply();
+        set(c, Outfit.Slot.HAT, resId);
     }
 
     public static int getHat(Context c) {
-        return getPrefs(c).getInt(KEY_HAT, 0);
+        return get(c).getHat();
     }
 
-
-    // ================= GLASSES =================
-
     public static void setGlasses(Context c, int resId) {
-        getPrefs(c).edit().putInt(KEY_GLASSES, resId).apply();
+        set(c, Outfit.Slot.GLASSES, resId);
     }
 
     public static int getGlasses(Context c) {
-        return getPrefs(c).getInt(KEY_GLASSES, 0);
+        return get(c).getGlasses();
     }
-}
\ No newline at end of file
+}
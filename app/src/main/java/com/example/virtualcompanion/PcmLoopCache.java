@@ -0,0 +1,362 @@
+package com.example.virtualcompanion;
+
+import android.content.Context;
+import android.media.AudioFormat;
+import android.media.MediaCodec;
+import android.media.MediaExtractor;
+import android.media.MediaFormat;
+import android.os.SystemClock;
+import android.util.Log;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.ShortBuffer;
+import java.nio.channels.FileChannel;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * PcmLoopCache
+ * Decodes the loop region of a track to 16-bit PCM once and keeps it in
+ * the cache dir, so later sessions only memory-map the file (disk, not heap).
+ *
+ * - Encoder delay and padding (LAME / iTunSMPB gapless info, as the
+ *   extractor reports it) are cut, so the region starts and ends on music
+ * - A track up to MAX_LOOP_MS loops whole: from its last frame to its first
+ * - A longer one loops its first MAX_LOOP_MS (about 10 MB of stereo PCM);
+ *   the audio right after the cut is blended into the first SEAM_MS, so
+ *   the wrap has no click
+ * - Decoding takes seconds, so it runs on its own "pcm-decode" thread;
+ *   until the file exists the track plays through MediaPlayer
+ * - File: 16-byte header (magic, sample rate, channels, frames) + frames
+ * - The file name carries the track's size in the APK: a changed track
+ *   decodes again and the old file is deleted
+ */
+final class PcmLoopCache {
+
+    private static final String TAG = "PcmLoopCache";
+
+    private static final String DIR_NAME = "pcm_loops";
+    private static final int FORMAT_VERSION = 3;       // 3: bounded region, encoder delay / padding cut
+    private static final int MAGIC = 0x50434D4C;    // "PCML"
+    private static final int HEADER_BYTES = 16;
+
+    private static final int MAX_LOOP_MS = 60_000;
+    private static final int SEAM_MS = 40;
+    private static final long TIMEOUT_US = 10_000;
+
+    // Gapless info in frames (MediaFormat.KEY_ENCODER_DELAY / _PADDING, set by
+    // the MP3 and MP4 extractors long before the constants were public)
+    private static final String KEY_ENCODER_DELAY = "encoder-delay";
+    private static final String KEY_ENCODER_PADDING = "encoder-padding";
+
+    // One decode at a time, behind playback
+    private static final ExecutorService decoder = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "pcm-decode");
+        thread.setDaemon(true);
+        thread.setPriority(Thread.MIN_PRIORITY);
+        return thread;
+    });
+
+    // Tracks queued on / being decoded by `decoder`
+    private static final Set<String> decoding = Collections.synchronizedSet(new HashSet<>());
+
+    /**
+     * A mapped loop - `pcm` holds `frames` frames of native-order 16-bit samples
+     */
+    static final class Loop {
+        final ByteBuffer pcm;
+        final int sampleRate;
+        final int channels;
+        final int frames;
+
+        private Loop(ByteBuffer pcm, int sampleRate, int channels, int frames) {
+            this.pcm = pcm;
+            this.sampleRate = sampleRate;
+            this.channels = channels;
+            this.frames = frames;
+        }
+    }
+
+    private PcmLoopCache() {
+    }
+
+    /**
+     * The track's loop if it has been decoded before (null if not). Maps a
+     * file, nothing more - fine on the prepare thread.
+     */
+    static Loop loadCached(Context context, TrackRegistry.Track track) throws IOException {
+        return map(fileFor(context, track));
+    }
+
+    /**
+     * Decode the track for later sessions on the "pcm-decode" thread
+     * (no-op if it is cached or already queued)
+     */
+    static void decodeInBackground(Context context, TrackRegistry.Track track) {
+        if (!decoding.add(track.name)) return;
+
+        Context appContext = context.getApplicationContext();
+        decoder.execute(() -> {
+            try {
+                decodeToCache(appContext, track);
+            } catch (IOException | RuntimeException e) {
+                Log.w(TAG, "Could not decode " + track.name + ": " + e.getMessage());
+            } finally {
+                decoding.remove(track.name);
+            }
+        });
+    }
+
+    private static File fileFor(Context context, TrackRegistry.Track track) {
+        File dir = new File(context.getCacheDir(), DIR_NAME);
+        return new File(dir, track.name + "_" + track.length + "_v" + FORMAT_VERSION + ".pcm");
+    }
+
+    private static void decodeToCache(Context context, TrackRegistry.Track track) throws IOException {
+        File file = fileFor(context, track);
+        if (map(file) != null) return;
+
+        File dir = file.getParentFile();
+        if (!dir.isDirectory() && !dir.mkdirs()) {
+            throw new IOException("Cannot create " + dir);
+        }
+        deleteStale(dir, track.name, file);
+
+        long start = SystemClock.elapsedRealtime();
+        File tmp = new File(dir, file.getName() + ".tmp");
+        try {
+            decode(track, tmp);
+            if (!tmp.renameTo(file)) {
+                throw new IOException("Cannot rename " + tmp);
+            }
+        } finally {
+            tmp.delete();
+        }
+        Log.d(TAG, "Decoded " + track.name + " in " + (SystemClock.elapsedRealtime() - start) + "ms");
+    }
+
+    // ================= READ =================
+
+    /**
+     * Map a cached loop (null if it is missing or not a complete loop file)
+     */
+    private static Loop map(File file) throws IOException {
+        if (!file.isFile() || file.length() < HEADER_BYTES) return null;
+
+        try (RandomAccessFile raf = new RandomAccessFile(file, "r");
+             FileChannel channel = raf.getChannel()) {
+
+            // The mapping stays valid after the channel is closed
+            MappedByteBuffer map = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+
+            int sampleRate = map.getInt(4);
+            int channels = map.getInt(8);
+            int frames = map.getInt(12);
+            long expected = HEADER_BYTES + (long) frames * channels * 2;
+
+            if (map.getInt(0) != MAGIC || sampleRate <= 0 || channels < 1 || channels > 2
+                    || frames <= 0 || channel.size() != expected) {
+                Log.w(TAG, "Ignoring invalid loop file " + file.getName());
+                return null;
+            }
+
+            map.position(HEADER_BYTES);
+            ByteBuffer pcm = map.slice().order(ByteOrder.nativeOrder());
+            return new Loop(pcm, sampleRate, channels, frames);
+        }
+    }
+
+    private static void deleteStale(File dir, String name, File keep) {
+        File[] files = dir.listFiles();
+        if (files == null) return;
+
+        for (File f : files) {
+            if (f.getName().startsWith(name + "_") && !f.equals(keep)) {
+                f.delete();
+            }
+        }
+    }
+
+    // ================= DECODE =================
+
+    private static void decode(TrackRegistry.Track track, File out) throws IOException {
+        MediaExtractor extractor = new MediaExtractor();
+        MediaCodec codec = null;
+
+        try (RandomAccessFile raf = new RandomAccessFile(out, "rw");
+             FileChannel channel = raf.getChannel()) {
+
+            raf.setLength(0);
+            extractor.setDataSource(track.afd.getFileDescriptor(), track.offset, track.length);
+
+            MediaFormat format = selectAudioTrack(extractor);
+            codec = MediaCodec.createDecoderByType(format.getString(MediaFormat.KEY_MIME));
+            codec.configure(format, null, null, 0);
+            codec.start();
+
+            int sampleRate = format.getInteger(MediaFormat.KEY_SAMPLE_RATE);
+            int channels = format.getInteger(MediaFormat.KEY_CHANNEL_COUNT);
+            int delayFrames = frameCount(format, KEY_ENCODER_DELAY);
+            int paddingFrames = frameCount(format, KEY_ENCODER_PADDING);
+            long limit = regionBytes(sampleRate, channels);
+
+            channel.position(HEADER_BYTES);
+            long skipped = 0;           // of the encoder delay, in bytes
+            long written = 0;
+            boolean trackEnded = false;
+
+            MediaCodec.BufferInfo info = new MediaCodec.BufferInfo();
+            boolean inputDone = false;
+            boolean outputDone = false;
+
+            while (!outputDone) {
+                if (!inputDone) {
+                    int in = codec.dequeueInputBuffer(TIMEOUT_US);
+                    if (in >= 0) {
+                        ByteBuffer buffer = codec.getInputBuffer(in);
+                        int size = extractor.readSampleData(buffer, 0);
+                        if (size < 0) {
+                            codec.queueInputBuffer(in, 0, 0, 0, MediaCodec.BUFFER_FLAG_END_OF_STREAM);
+                            inputDone = true;
+                        } else {
+                            codec.queueInputBuffer(in, 0, size, extractor.getSampleTime(), 0);
+                            extractor.advance();
+                        }
+                    }
+                }
+
+                int outIndex = codec.dequeueOutputBuffer(info, TIMEOUT_US);
+                if (outIndex == MediaCodec.INFO_OUTPUT_FORMAT_CHANGED) {
+                    MediaFormat outFormat = codec.getOutputFormat();
+                    if (outFormat.containsKey(MediaFormat.KEY_PCM_ENCODING)
+                            && outFormat.getInteger(MediaFormat.KEY_PCM_ENCODING) != AudioFormat.ENCODING_PCM_16BIT) {
+                        throw new IOException("Decoder output is not 16-bit PCM");
+                    }
+                    sampleRate = outFormat.getInteger(MediaFormat.KEY_SAMPLE_RATE);
+                    channels = outFormat.getInteger(MediaFormat.KEY_CHANNEL_COUNT);
+                    limit = regionBytes(sampleRate, channels);
+
+                } else if (outIndex >= 0) {
+                    if (info.size > 0 && written < limit) {
+                        ByteBuffer pcm = codec.getOutputBuffer(outIndex);
+                        pcm.limit(info.offset + info.size);
+                        pcm.position(info.offset);
+
+                        // Leading encoder delay is not part of the music
+                        long skip = Math.min((long) delayFrames * channels * 2 - skipped, pcm.remaining());
+                        if (skip > 0) {
+                            pcm.position(pcm.position() + (int) skip);
+                            skipped += skip;
+                        }
+
+                        pcm.limit(pcm.position() + (int) Math.min(pcm.remaining(), limit - written));
+                        while (pcm.hasRemaining()) {
+                            written += channel.write(pcm);
+                        }
+                    }
+                    codec.releaseOutputBuffer(outIndex, false);
+
+                    boolean endOfStream = (info.flags & MediaCodec.BUFFER_FLAG_END_OF_STREAM) != 0;
+                    trackEnded = endOfStream && written < limit;
+                    outputDone = endOfStream || written >= limit;
+                }
+            }
+
+            if (channels < 1 || channels > 2) {
+                throw new IOException("Unsupported channel count " + channels);
+            }
+
+            int frameBytes = channels * 2;
+            int decodedFrames = (int) (written / frameBytes);
+            int loopFrames;
+
+            if (trackEnded) {
+                // The whole track: its end (minus padding) wraps to its start
+                loopFrames = decodedFrames - paddingFrames;
+                if (loopFrames <= 0) {
+                    throw new IOException("Cannot loop " + loopFrames + " frames");
+                }
+            } else {
+                // Cut at MAX_LOOP_MS: what follows the cut fades into the start
+                int seamFrames = SEAM_MS * sampleRate / 1000;
+                loopFrames = decodedFrames - seamFrames;
+                if (loopFrames < seamFrames * 2) {
+                    throw new IOException("Track too short to loop");
+                }
+                blendSeam(channel, loopFrames, seamFrames, channels);
+            }
+
+            // Drop padding / seam tail / a partial last frame and write the header last
+            raf.setLength(HEADER_BYTES + (long) loopFrames * frameBytes);
+
+            ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES);
+            header.putInt(MAGIC).putInt(sampleRate).putInt(channels).putInt(loopFrames).flip();
+            channel.write(header, 0);
+            channel.force(true);
+
+        } catch (IllegalStateException e) {
+            // MediaCodec reports decoder failures this way
+            throw new IOException("Decoding failed: " + e.getMessage(), e);
+        } finally {
+            if (codec != null) {
+                try {
+                    codec.stop();
+                } catch (IllegalStateException ignored) {
+                }
+                codec.release();
+            }
+            extractor.release();
+        }
+    }
+
+    private static MediaFormat selectAudioTrack(MediaExtractor extractor) throws IOException {
+        for (int i = 0; i < extractor.getTrackCount(); i++) {
+            MediaFormat format = extractor.getTrackFormat(i);
+            String mime = format.getString(MediaFormat.KEY_MIME);
+            if (mime != null && mime.startsWith("audio/")) {
+                extractor.selectTrack(i);
+                return format;
+            }
+        }
+        throw new IOException("No audio track");
+    }
+
+    private static int frameCount(MediaFormat format, String key) {
+        return format.containsKey(key) ? Math.max(format.getInteger(key), 0) : 0;
+    }
+
+    // Loop region plus the seam tail, in bytes
+    private static long regionBytes(int sampleRate, int channels) {
+        long frames = (long) (MAX_LOOP_MS + SEAM_MS) * sampleRate / 1000;
+        return frames * channels * 2;
+    }
+
+    /**
+     * Fade the frames after the loop end into the loop start: playback
+     * that wraps from loopFrames-1 to 0 continues into what followed it
+     */
+    private static void blendSeam(FileChannel channel, int loopFrames, int seamFrames, int channels)
+            throws IOException {
+        int frameBytes = channels * 2;
+        MappedByteBuffer map = channel.map(FileChannel.MapMode.READ_WRITE, HEADER_BYTES,
+                (long) (loopFrames + seamFrames) * frameBytes);
+        ShortBuffer samples = map.order(ByteOrder.nativeOrder()).asShortBuffer();
+
+        int tailStart = loopFrames * channels;
+        for (int i = 0; i < seamFrames * channels; i++) {
+            float w = (float) (i / channels) / seamFrames;
+            float head = samples.get(i);
+            float tail = samples.get(tailStart + i);
+            samples.put(i, (short) Math.round(head * w + tail * (1f - w)));
+        }
+        map.force();
+    }
+}
@@ -0,0 +1,236 @@
+package com.example.virtualcompanion;
+
+import android.media.AudioAttributes;
+import android.media.AudioFormat;
+import android.media.AudioTrack;
+import android.os.SystemClock;
+import android.util.Log;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+
+/**
+ * PcmLoopPlayer
+ * Plays a PcmLoopCache loop forever through a streaming AudioTrack.
+ *
+ * A "pcm-loop" thread copies the mapped PCM into the track and wraps from
+ * the last frame straight to frame 0, so the loop is sample-exact and
+ * nothing is decoded while it plays. The thread sleeps while paused.
+ * If the track stops taking data the player stops and tells its
+ * OnErrorListener, like MediaPlayer's.
+ */
+final class PcmLoopPlayer implements MusicManager.TrackPlayer {
+
+    private static final String TAG = "PcmLoopPlayer";
+
+    private static final int CHUNK_FRAMES = 2048;
+    private static final int BUFFER_PERIODS = 4;    // AudioTrack buffer, in minimum buffers
+    private static final int POLL_MS = 10;          // wait when the track buffer is full
+
+    /**
+     * Told on the "pcm-loop" thread when an AudioTrack write fails
+     * (`error` is its negative result); only release() is left to call
+     */
+    interface OnErrorListener {
+        void onError(PcmLoopPlayer player, int error);
+    }
+
+    private final Object lock = new Object();
+    private final ByteBuffer pcm;
+    private final AudioTrack track;
+    private final int sampleRate;
+    private final int frameBytes;
+    private final int loopFrames;
+    private final int loopBytes;
+
+    // Guarded by lock
+    private int writePos;       // next byte of the loop handed to the track
+    private int baseFrame;      // loop frame that plays at playback head 0
+    private boolean playing;
+    private boolean released;
+    private boolean failed;
+    private OnErrorListener errorListener;
+
+    PcmLoopPlayer(PcmLoopCache.Loop loop) throws IOException {
+        pcm = loop.pcm.duplicate();
+        sampleRate = loop.sampleRate;
+        frameBytes = loop.channels * 2;
+        loopFrames = loop.frames;
+        loopBytes = loop.frames * frameBytes;
+
+        int channelMask = loop.channels == 1 ? AudioFormat.CHANNEL_OUT_MONO : AudioFormat.CHANNEL_OUT_STEREO;
+        int minBuffer = AudioTrack.getMinBufferSize(sampleRate, channelMask, AudioFormat.ENCODING_PCM_16BIT);
+        if (minBuffer <= 0) {
+            throw new IOException("No AudioTrack for " + sampleRate + " Hz");
+        }
+
+        try {
+            track = new AudioTrack.Builder()
+                    .setAudioAttributes(new AudioAttributes.Builder()
+                            .setUsage(AudioAttributes.USAGE_GAME)
+                            .setContentType(AudioAttributes.CONTENT_TYPE_MUSIC)
+                            .build())
+                    .setAudioFormat(new AudioFormat.Builder()
+                            .setSampleRate(sampleRate)
+                            .setChannelMask(channelMask)
+                            .setEncoding(AudioFormat.ENCODING_PCM_16BIT)
+                            .build())
+                    .setBufferSizeInBytes(minBuffer * BUFFER_PERIODS)
+                    .setTransferMode(AudioTrack.MODE_STREAM)
+                    .build();
+        } catch (UnsupportedOperationException | IllegalArgumentException e) {
+            // The builder's way of saying the format isn't supported
+            throw new IOException("AudioTrack unavailable: " + e.getMessage(), e);
+        }
+
+        Thread writer = new Thread(this::writeLoop, "pcm-loop");
+        writer.setPriority(Thread.MAX_PRIORITY);
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    void setOnErrorListener(OnErrorListener listener) {
+        synchronized (lock) {
+            errorListener = listener;
+        }
+    }
+
+    private void writeLoop() {
+        while (true) {
+            boolean full;
+            OnErrorListener failedListener = null;
+            int error = 0;
+
+            synchronized (lock) {
+                while (!released && !playing) {
+                    try {
+                        lock.wait();
+                    } catch (InterruptedException e) {
+                        return;
+                    }
+                }
+                if (released) return;
+
+                int chunk = Math.min(CHUNK_FRAMES * frameBytes, loopBytes - writePos);
+                pcm.limit(writePos + chunk);
+                pcm.position(writePos);
+
+                int written = track.write(pcm, chunk, AudioTrack.WRITE_NON_BLOCKING);
+                if (written < 0) {
+                    Log.e(TAG, "AudioTrack write failed: " + written);
+                    track.pause();
+                    playing = false;
+                    failed = true;
+                    failedListener = errorListener;
+                    error = written;
+                    full = false;
+                } else {
+                    writePos += written;
+                    if (writePos == loopBytes) {
+                        writePos = 0;   // the wrap - next write starts at frame 0
+                    }
+                    full = written < chunk;
+                }
+            }
+
+            if (error != 0) {
+                // Outside the lock: the listener may release() right away
+                if (failedListener != null) {
+                    failedListener.onError(this, error);
+                }
+                return;
+            }
+
+            if (full) {
+                SystemClock.sleep(POLL_MS);
+            }
+        }
+    }
+
+    // ================= TrackPlayer =================
+
+    @Override
+    public void start() {
+        synchronized (lock) {
+            if (released || failed || playing) return;
+            track.play();
+            playing = true;
+            lock.notifyAll();
+        }
+    }
+
+    @Override
+    public void pause() {
+        synchronized (lock) {
+            if (released || !playing) return;
+            track.pause();
+            playing = false;
+        }
+    }
+
+    @Override
+    public boolean isPlaying() {
+        synchronized (lock) {
+            return playing;
+        }
+    }
+
+    @Override
+    public int getCurrentPosition() {
+        synchronized (lock) {
+            if (released) return 0;
+
+            long played = track.getPlaybackHeadPosition() & 0xFFFFFFFFL;
+            long frame = (baseFrame + played) % loopFrames;
+            return (int) (frame * 1000 / sampleRate);
+        }
+    }
+
+    @Override
+    public int getDuration() {
+        return (int) ((long) loopFrames * 1000 / sampleRate);
+    }
+
+    /**
+     * Drop what is queued and continue from `msec` (playback head restarts at 0)
+     */
+    @Override
+    public void seekTo(int msec) {
+        synchronized (lock) {
+            if (released) return;
+
+            int frame = (int) (((long) Math.max(msec, 0) * sampleRate / 1000) % loopFrames);
+
+            track.pause();
+            track.flush();
+            writePos = frame * frameBytes;
+            baseFrame = frame;
+
+            if (playing) {
+                track.play();
+            }
+        }
+    }
+
+    @Override
+    public void setVolume(float left, float right) {
+        synchronized (lock) {
+            if (released) return;
+            track.setVolume(Math.max(left, right));
+        }
+    }
+
+    @Override
+    public void release() {
+        synchronized (lock) {
+            if (released) return;
+            released = true;
+            playing = false;
+            lock.notifyAll();
+
+            track.pause();
+            track.flush();
+            track.release();
+        }
+    }
+}
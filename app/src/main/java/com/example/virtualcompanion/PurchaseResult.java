@@ -0,0 +1,47 @@
+package com.example.virtualcompanion;
+
+/**
+ * PurchaseResult
+ * Result of DatabaseManager.purchase() - new balance and owned items after
+ * the transaction, so the shop screen doesn't have to query again
+ */
+public class PurchaseResult {
+
+    public enum Status {
+        PURCHASED,
+        ALREADY_OWNED,
+        NOT_ENOUGH_COINS,
+        UNKNOWN_ITEM
+    }
+
+    private final Status status;
+    private final int newBalance;
+    private final long[] owned;     // bit i = ItemCatalog item i
+
+    public PurchaseResult(Status status, int newBalance, long[] owned) {
+        this.status = status;
+        this.newBalance = newBalance;
+        this.owned = owned;
+    }
+
+    // ================= GETTERS =================
+
+    public Status getStatus() {
+        return status;
+    }
+
+    public boolean isPurchased() {
+        return status == Status.PURCHASED;
+    }
+
+    public int getNewBalance() {
+        return newBalance;
+    }
+
+    /**
+     * Owned items after the purchase (shared - do not modify)
+     */
+    public long[] getOwnedItems() {
+        return owned;
+    }
+}
@@ -0,0 +1,193 @@
+package com.example.virtualcompanion;
+
+import android.content.Context;
+import android.database.Cursor;
+import android.database.sqlite.SQLiteDatabase;
+import android.database.sqlite.SQLiteStatement;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+
+/**
+ * QuestCatalog
+ *
+ * Fills the quest table from assets/quest_catalog.db (built from
+ * app/catalog/quest_catalog.sql at build time).
+ * - First install: installSeed() copies the asset in as the database file
+ *   itself (quest rows + catalog_meta already there, nothing to insert)
+ * - catalog_meta remembers which catalog version is in the database
+ * - sync() does nothing when the version is current (one lookup per open)
+ * - otherwise (a newer catalog on an existing database): copy the asset to
+ *   a file, read it, update text / rewards of existing quests and insert
+ *   new ones in one transaction
+ * - progress / rewarded are never touched, so user progress survives updates
+ */
+final class QuestCatalog {
+
+    static final String ASSET_NAME = "quest_catalog.db";
+    static final int VERSION = BuildConfig.QUEST_CATALOG_VERSION;
+
+    private QuestCatalog() {
+    }
+
+    /**
+     * Table that records the applied catalog version
+     */
+    static void createMetaTable(SQLiteDatabase db) {
+        db.execSQL(
+                "CREATE TABLE IF NOT EXISTS catalog_meta (" +
+                        "name TEXT PRIMARY KEY, " +
+                        "version INTEGER NOT NULL" +
+                        ");"
+        );
+    }
+
+    /**
+     * Start a database that doesn't exist yet from the bundled catalog.
+     * Copied next to it and renamed, so a failed copy never leaves half a
+     * database behind. Returns false if it couldn't (onCreate + sync()
+     * then build the quest table the slow way).
+     */
+    static boolean installSeed(Context context, File database) {
+        File tmp = new File(database.getPath() + ".seed");
+        try {
+            copyAsset(context, tmp);
+            if (!tmp.renameTo(database)) {
+                throw new IOException("Could not rename " + tmp);
+            }
+            android.util.Log.d("QuestCatalog", "Database seeded with quest catalog version " + VERSION);
+            return true;
+        } catch (IOException e) {
+            android.util.Log.e("QuestCatalog", "Could not seed database: " + e.getMessage());
+            return false;
+        } finally {
+            tmp.delete();
+        }
+    }
+
+    /**
+     * Bring the quest table up to the bundled catalog version
+     */
+    static void sync(Context context, SQLiteDatabase db) {
+        if (getAppliedVersion(db) >= VERSION) {
+            return;
+        }
+
+        File copy = context.getDatabasePath("quest_catalog_v" + VERSION + ".db");
+        try {
+            copyAsset(context, copy);
+
+            SQLiteDatabase catalog = SQLiteDatabase.openDatabase(
+                    copy.getPath(), null, SQLiteDatabase.OPEN_READONLY
+            );
+            try {
+                apply(db, catalog);
+            } finally {
+                catalog.close();
+            }
+        } catch (IOException e) {
+            throw new IllegalStateException("Could not copy " + ASSET_NAME, e);
+        } finally {
+            SQLiteDatabase.deleteDatabase(copy);
+        }
+
+        android.util.Log.d("QuestCatalog", "Quest catalog synced to version " + VERSION);
+    }
+
+    private static int getAppliedVersion(SQLiteDatabase db) {
+        Cursor c = db.rawQuery("SELECT version FROM catalog_meta WHERE name='quest'", null);
+        int version = 0;
+        if (c.moveToFirst()) {
+            version = c.getInt(0);
+        }
+        c.close();
+        return version;
+    }
+
+    /**
+     * Copy catalog rows into the quest table in one transaction.
+     * (UPDATE ... FROM and upsert need a newer SQLite than minSdk 24 ships,
+     * so it is an UPDATE per row, then INSERT OR IGNORE for new IDs.)
+     */
+    private static void apply(SQLiteDatabase db, SQLiteDatabase catalog) {
+        SQLiteStatement update = db.compileStatement(
+                "UPDATE quest SET title=?, description=?, reward=?, timer_minutes=?, mood=? WHERE id=?"
+        );
+        SQLiteStatement insert = db.compileStatement(
+                "INSERT OR IGNORE INTO quest (id, title, description, reward, timer_minutes, mood) " +
+                        "VALUES (?,?,?,?,?,?)"
+        );
+
+        Cursor c = catalog.rawQuery(
+                "SELECT id, title, description, reward, timer_minutes, mood FROM quest ORDER BY id",
+                null
+        );
+
+        db.beginTransaction();
+        try {
+            while (c.moveToNext()) {
+                long id = c.getLong(0);
+                String title = c.getString(1);
+                String description = c.isNull(2) ? "" : c.getString(2);
+                long reward = c.getLong(3);
+                long timerMinutes = c.getLong(4);
+                String mood = c.getString(5);
+
+                update.bindString(1, title);
+                update.bindString(2, description);
+                update.bindLong(3, reward);
+                update.bindLong(4, timerMinutes);
+                update.bindString(5, mood);
+                update.bindLong(6, id);
+
+                if (update.executeUpdateDelete() == 0) {
+                    insert.bindLong(1, id);
+                    insert.bindString(2, title);
+                    insert.bindString(3, description);
+                    insert.bindLong(4, reward);
+                    insert.bindLong(5, timerMinutes);
+                    insert.bindString(6, mood);
+                    insert.executeInsert();
+                }
+            }
+
+            db.execSQL(
+                    "INSERT OR REPLACE INTO catalog_meta (name, version) VALUES ('quest', ?)",
+                    new Object[]{VERSION}
+            );
+
+            db.setTransactionSuccessful();
+        } finally {
+            db.endTransaction();
+            c.close();
+            update.close();
+            insert.close();
+        }
+    }
+
+    private static void copyAsset(Context context, File target) throws IOException {
+        File dir = target.getParentFile();
+        if (dir != null && !dir.exists() && !dir.mkdirs()) {
+            throw new IOException("Could not create " + dir);
+        }
+
+        InputStream in = context.getAssets().open(ASSET_NAME);
+        try {
+            OutputStream out = new FileOutputStream(target);
+            try {
+                byte[] buffer = new byte[8192];
+                int read;
+                while ((read = in.read(buffer)) != -1) {
+                    out.write(buffer, 0, read);
+                }
+            } finally {
+                out.close();
+            }
+        } finally {
+            in.close();
+        }
+    }
+}
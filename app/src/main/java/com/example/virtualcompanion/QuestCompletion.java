@@ -0,0 +1,50 @@
+package com.example.virtualcompanion;
+
+/**
+ * QuestCompletion
+ * Result of DatabaseManager.completeQuest() - everything the quest screen
+ * needs afterwards, so it doesn't have to query again
+ */
+public class QuestCompletion {
+
+    private final int questId;
+    private final int coinsAwarded;     // 0 if the quest was already rewarded
+    private final int newBalance;
+    private final boolean sessionComplete; // all quests of the current session done
+    private final boolean firstSessionToday; // ...and it was the first session completed today
+
+    public QuestCompletion(int questId, int coinsAwarded, int newBalance, boolean sessionComplete,
+                           boolean firstSessionToday) {
+        this.questId = questId;
+        this.coinsAwarded = coinsAwarded;
+        this.newBalance = newBalance;
+        this.sessionComplete = sessionComplete;
+        this.firstSessionToday = firstSessionToday;
+    }
+
+    // ================= GETTERS =================
+
+    public int getQuestId() {
+        return questId;
+    }
+
+    public int getCoinsAwarded() {
+        return coinsAwarded;
+    }
+
+    public boolean wasRewarded() {
+        return coinsAwarded > 0;
+    }
+
+    public int getNewBalance() {
+        return newBalance;
+    }
+
+    public boolean isSessionComplete() {
+        return sessionComplete;
+    }
+
+    public boolean isFirstSessionToday() {
+        return firstSessionToday;
+    }
+}
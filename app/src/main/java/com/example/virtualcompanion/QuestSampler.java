@@ -0,0 +1,100 @@
+package com.example.virtualcompanion;
+
+import java.util.BitSet;
+import java.util.Random;
+
+/**
+ * QuestSampler
+ *
+ * Picks random quests for ONE mood, in memory (no SQL).
+ * - pool holds every quest ID of the mood
+ * - pool[0 .. remaining) are the IDs not used yet today; each draw swaps a
+ *   random one to the end of that range (partial Fisher-Yates), so picking
+ *   N quests costs O(N) no matter how big the catalog is
+ * - used marks the IDs already handed out today
+ *
+ * Pass a seeded Random to get the same picks every run (tests).
+ */
+public class QuestSampler {
+
+    private final int[] pool;
+    private final BitSet used = new BitSet();
+    private final Random random;
+    private int remaining;
+
+    public QuestSampler(int[] questIds, Random random) {
+        this.pool = questIds.clone();
+        this.random = random;
+        this.remaining = pool.length;
+    }
+
+    public QuestSampler(int[] questIds, long seed) {
+        this(questIds, new Random(seed));
+    }
+
+    /**
+     * Pick up to count quest IDs not used yet today
+     */
+    public int[] draw(int count) {
+        int n = Math.min(count, remaining);
+        int[] picked = new int[n];
+
+        for (int i = 0; i < n; i++) {
+            int j = random.nextInt(remaining);
+            remaining--;
+
+            int id = pool[j];
+            pool[j] = pool[remaining];
+            pool[remaining] = id;
+
+            used.set(id);
+            picked[i] = id;
+        }
+
+        return picked;
+    }
+
+    /**
+     * Mark IDs as already used (restoring today's saved history).
+     * One pass over the pool, moves them out of the unused range.
+     */
+    public void restoreUsed(int[] usedIds) {
+        for (int id : usedIds) {
+            used.set(id);
+        }
+
+        int write = 0;
+        for (int i = 0; i < remaining; i++) {
+            if (!used.get(pool[i])) {
+                int id = pool[i];
+                pool[i] = pool[write];
+                pool[write] = id;
+                write++;
+            }
+        }
+        remaining = write;
+    }
+
+    /**
+     * Forget today's history - every quest is available again
+     */
+    public void reset() {
+        used.clear();
+        remaining = pool.length;
+    }
+
+    public boolean isUsed(int questId) {
+        return used.get(questId);
+    }
+
+    /**
+     * How many quests are still unused today
+     */
+    public int getRemainingCount() {
+        return remaining;
+    }
+
+    public int getPoolSize() {
+        return pool.length;
+    }
+}
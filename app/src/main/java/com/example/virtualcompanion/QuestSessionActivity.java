@@ -43,6 +43,7 @@ public class QuestSessionActivity extends BaseActivity {
     private long timeLeftInMillis;
 
     private Quest currentQuest;
+    private QuestCompletion completion; // set once the quest is saved as completed
     private int questPosition;
     private String questMood;
 
@@ -54,6 +55,11 @@ public class QuestSessionActivity extends BaseActivity {
 
     public static final int RESULT_QUEST_COMPLETED = 2001;
 
+    @Override
+    protected int getBackgroundResId() {
+        return R.drawable.bg_quest_session;
+    }
+
     @Override
     protected void onCreate(Bundle savedInstanceState) {
         super.onCreate(savedInstanceState);
@@ -213,7 +219,7 @@ public class QuestSessionActivity extends BaseActivity {
         GradientDrawable indicatorBg = (GradientDrawable) moodIndicator.getBackground();
         indicatorBg.setColor(badgeColor);
 
-        petDisplay.setImageResource(petEmotion);
+        BitmapLoader.load(petDisplay, petEmotion);
     }
 
     // ================= MOOD ANIMATIONS =================
@@ -317,8 +323,9 @@ public class QuestSessionActivity extends BaseActivity {
 
     // ================= TIMER COMPLETE WITH VIBRATION ONLY =================
     private void onTimerComplete() {
-        // Vibrate device (NO SOUND)
+        // Vibrate device + short chime (off with the Settings sound toggle)
         vibrateDevice();
+        SoundEffects.play(SoundEffects.TIMER_DONE);
 
         // Flash screen
         flashScreen();
@@ -399,33 +406,6 @@ public class QuestSessionActivity extends BaseActivity {
                 .setMessage("Did you complete this quest successfully?")
                 .setPositiveButton("Yes, I did it!", (dialog, which) -> {
                     markQuestAsCompleted();
-
-                    // ========== CHECK IF ALL QUESTS ARE COMPLETE ==========
-                    DatabaseManager db = DatabaseManager.get(this);
-                    if (db.areAllCurrentQuestsComplete()) {
-                        android.util.Log.d(TAG, "ALL QUESTS COMPLETE! Redirecting to MoodActivity.");
-
-                        // Mark that first quest set was completed today
-                        db.markFirstQuestCompleted();
-
-                        // Clear the quest session
-                        db.clearCurrentQuestSession();
-
-                        // Restore music
-                        MusicManager.restorePreQuestMusic(this);
-
-                        // DIRECTLY GO TO MOOD ACTIVITY
-                        Intent intent = new Intent(this, MoodActivity.class);
-                        intent.putExtra("flow", "QUEST_COMPLETE");
-                        intent.setFlags(Intent.FLAG_ACTIVITY_CLEAR_TOP | Intent.FLAG_ACTIVITY_NEW_TASK);
-                        startActivity(intent);
-                        overridePendingTransition(android.R.anim.fade_in, android.R.anim.fade_out);
-                        finish();
-                    } else {
-                        // Not all quests done, just go back normally
-                        android.util.Log.d(TAG, "Quest complete, but more quests remaining.");
-                        finish();
-                    }
                 })
                 .setNegativeButton("Not yet", (dialog, which) -> {
                     Toast.makeText(this, "Keep going! You can do it!", Toast.LENGTH_SHORT).show();
@@ -436,18 +416,26 @@ public class QuestSessionActivity extends BaseActivity {
 
     // ================= MARK QUEST AS COMPLETED =================
     private void markQuestAsCompleted() {
-        DatabaseManager db = DatabaseManager.get(this);
+        // Progress, reward and coins in one transaction - the result tells us everything else
+        DatabaseManager.get(this).completeQuestAsync(currentQuest.getId(),
+                DatabaseManager.Callback.of(this::onQuestCompleted, this::onQuestCompletionFailed));
+    }
 
-        // Mark quest as done (set progress to 100%)
-        db.updateQuestProgress(currentQuest.getId(), 100);
+    private void onQuestCompletionFailed(Exception error) {
+        if (isDestroyed()) return;
 
-        // Mark quest as rewarded
-        db.markQuestRewarded(currentQuest.getId());
+        // Nothing was saved (one transaction) - the user can confirm again
+        Toast.makeText(this, "Could not save quest, please try again", Toast.LENGTH_SHORT).show();
+    }
+
+    private void onQuestCompleted(QuestCompletion result) {
+        completion = result;
 
-        // Add coins
-        db.addCoins(currentQuest.getReward());
+        if (isDestroyed()) return;
 
-        Toast.makeText(this, "+" + currentQuest.getReward() + " coins earned!", Toast.LENGTH_SHORT).show();
+        if (result.wasRewarded()) {
+            Toast.makeText(this, "+" + result.getCoinsAwarded() + " coins earned!", Toast.LENGTH_SHORT).show();
+        }
 
         // Return result
         Intent resultIntent = new Intent();
@@ -455,11 +443,30 @@ public class QuestSessionActivity extends BaseActivity {
         resultIntent.putExtra("quest_position", questPosition);
         setResult(RESULT_QUEST_COMPLETED, resultIntent);
 
-        // Restore the music that was playing before the quest (only if not all complete)
-        // If all complete, music will be restored in showCompletionDialog()
-        if (!db.areAllCurrentQuestsComplete()) {
-            Log.d(TAG, "Quest completed, restoring previous music");
-            MusicManager.restorePreQuestMusic(this);
+        // Restore the music that was playing before the quest
+        MusicManager.restorePreQuestMusic(this);
+
+        // ========== CHECK IF ALL QUESTS ARE COMPLETE ==========
+        if (result.isSessionComplete()) {
+            Log.d(TAG, "ALL QUESTS COMPLETE! Redirecting to MoodActivity.");
+
+            // completeQuest already recorded today's completion and cleared the
+            // finished session in its transaction
+            if (result.isFirstSessionToday()) {
+                Log.d(TAG, "First quest set completed today.");
+            }
+
+            // DIRECTLY GO TO MOOD ACTIVITY
+            Intent intent = new Intent(this, MoodActivity.class);
+            intent.putExtra("flow", "QUEST_COMPLETE");
+            intent.setFlags(Intent.FLAG_ACTIVITY_CLEAR_TOP | Intent.FLAG_ACTIVITY_NEW_TASK);
+            startActivity(intent);
+            overridePendingTransition(android.R.anim.fade_in, android.R.anim.fade_out);
+            finish();
+        } else {
+            // Not all quests done, just go back normally
+            Log.d(TAG, "Quest complete, but more quests remaining.");
+            finish();
         }
     }
 
@@ -493,10 +500,9 @@ public class QuestSessionActivity extends BaseActivity {
         // Stop all animations
         stopAllAlerts();
 
-        // Only restore if quest was not completed (user pressed back)
-        DatabaseManager db = DatabaseManager.get(this);
-        if (!db.areAllCurrentQuestsComplete()) {
-            Log.d(TAG, "Activity destroyed without completing all quests, restoring previous music");
+        // Only restore if quest was not completed (completion already restored it)
+        if (completion == null) {
+            Log.d(TAG, "Activity destroyed without completing the quest, restoring previous music");
             MusicManager.restorePreQuestMusic(this);
         }
     }
@@ -505,12 +511,13 @@ public class QuestSessionActivity extends BaseActivity {
         TextView title = findViewById(R.id.appTitle);
         if (title == null) return;
 
-        DatabaseManager db = DatabaseManager.get(this);
-        String name = db.getName();
+        DatabaseManager.get(this).getNameAsync(name -> {
+            if (isFinishing() || isDestroyed()) return;
 
-        if (name != null && !name.trim().isEmpty()) {
-            title.setText(name.toUpperCase());
-        } else {
-            title.setText("ECHO");
-        }
+            if (name != null && !name.trim().isEmpty()) {
+                title.setText(name.toUpperCase());
+            } else {
+                title.setText("ECHO");
+            }
+        });
     }}
\ No newline at end of file
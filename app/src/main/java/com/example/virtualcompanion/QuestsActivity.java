@@ -11,7 +11,7 @@ import androidx.annotation.Nullable;
 import androidx.recyclerview.widget.LinearLayoutManager;
 import androidx.recyclerview.widget.RecyclerView;
 
-import java.util.List;
+import java.util.ArrayList;
 
 public class QuestsActivity extends BaseActivity {
 
@@ -22,14 +22,31 @@ public class QuestsActivity extends BaseActivity {
     private TextView emptyStateMessage;
     private int moodIndex;
 
+    // Quest data this screen last showed, re-queried only when dirty or on a new day.
+    // quest_session is left out on purpose: completeQuest also touches quest, and
+    // our own getQuestsForMood writes the session (that would load twice).
+    private InvalidationTracker.Watch questsWatch;
+    private String loadedDate = "";
+    private final InvalidationTracker.Observer questsObserver = changed -> refreshQuestList();
+    private static final String[] QUEST_DEPENDENCIES = {
+            InvalidationTracker.TABLE_QUEST,
+            InvalidationTracker.TABLE_SESSION_COMPLETION
+    };
+
     private static final int REQUEST_CODE_QUEST = 1001;
 
+    @Override
+    protected int getBackgroundResId() {
+        return R.drawable.bg_quest;
+    }
+
     @Override
     protected void onCreate(Bundle savedInstanceState) {
         super.onCreate(savedInstanceState);
         setContentView(R.layout.activity_quests);
 
         db = DatabaseManager.get(this);
+        questsWatch = db.watchTables(QUEST_DEPENDENCIES);
 
         // Get mood index from intent or fallback to latest mood
         moodIndex = getIntent().getIntExtra("selected_mood", -1);
@@ -40,22 +57,17 @@ public class QuestsActivity extends BaseActivity {
         initializeViews();
         setupRecyclerView();
         setupNavigation();
-        updateCoinDisplay();
+        setupCoinCheat();
     }
 
     @Override
     protected void onActivityResult(int requestCode, int resultCode, @Nullable Intent data) {
         super.onActivityResult(requestCode, resultCode, data);
 
-        if (requestCode == REQUEST_CODE_QUEST) {
-            if (resultCode == QuestSessionActivity.RESULT_QUEST_COMPLETED) {
-                refreshQuestList();
-                updateCoinDisplay();
-                Toast.makeText(this, "Quest completed!", Toast.LENGTH_SHORT).show();
-            } else {
-                refreshQuestList();
-                updateCoinDisplay();
-            }
+        // onResume follows and reloads if the quest changed
+        if (requestCode == REQUEST_CODE_QUEST
+                && resultCode == QuestSessionActivity.RESULT_QUEST_COMPLETED) {
+            Toast.makeText(this, "Quest completed!", Toast.LENGTH_SHORT).show();
         }
     }
 
@@ -63,7 +75,18 @@ public class QuestsActivity extends BaseActivity {
     protected void onResume() {
         super.onResume();
         refreshQuestList();
-        updateCoinDisplay();
+
+        // Quests from this list play this mood's track - have it ready
+        MusicManager.preloadQuestMusic(this, DatabaseManager.getMoodTextFromIndex(moodIndex));
+
+        // Changes while visible (coins come from BaseActivity)
+        db.addTableListener(questsObserver, QUEST_DEPENDENCIES);
+    }
+
+    @Override
+    protected void onPause() {
+        super.onPause();
+        db.removeTableListener(questsObserver);
     }
 
     // ================= VIEW BINDING =================
@@ -92,21 +115,9 @@ public class QuestsActivity extends BaseActivity {
             return;
         }
 
-        // Get quests for current mood (including happy on first time today)
-        List<Quest> quests = db.getQuestsForMood(moodIndex);
-
-        if (quests.isEmpty()) {
-            showEmptyState("No quests available for your mood today!");
-            return;
-        }
-
-        // Hide empty state and show quest list
-        if (emptyStateMessage != null) {
-            emptyStateMessage.setVisibility(View.GONE);
-        }
-        questsRecyclerView.setVisibility(View.VISIBLE);
-
-        questsAdapter = new QuestsAdapter(quests);
+        // Start empty - refreshQuestList() (from onResume) fills it in
+        // once the quests are loaded in the background
+        questsAdapter = new QuestsAdapter(new ArrayList<>());
         questsRecyclerView.setAdapter(questsAdapter);
     }
 
@@ -124,28 +135,49 @@ public class QuestsActivity extends BaseActivity {
 
     private void refreshQuestList() {
         if (db != null) {
+            String today = db.getTodayDate();
+
+            // Same day and nothing we show changed - keep the list
+            if (!questsWatch.isDirty() && today.equals(loadedDate)) return;
+
+            long[] seen = questsWatch.capture();
+
             // Check if Happy mood AND first quest already completed today
             if (moodIndex == 1 && db.hasCompletedFirstQuestToday()) {
+                questsWatch.markClean(seen);
+                loadedDate = today;
                 showEmptyState("No quests available today!  Cherish your mood! \n Enjoy your day and check back tomorrow!");
                 return;
             }
 
+            // Load in the background, never block the UI on the database
+            db.getQuestsForMoodAsync(moodIndex, DatabaseManager.Callback.of(updatedQuests -> {
 
-            List<Quest> updatedQuests = db.getQuestsForMood(moodIndex);
+                if (isFinishing() || isDestroyed()) return;
 
-            if (updatedQuests.isEmpty()) {
-                showEmptyState("No quests available for your mood today!");
-            } else {
-                // Hide empty state and show quest list
-                if (emptyStateMessage != null) {
-                    emptyStateMessage.setVisibility(View.GONE);
-                }
-                questsRecyclerView.setVisibility(View.VISIBLE);
+                questsWatch.markClean(seen);
+                loadedDate = today;
 
-                if (questsAdapter != null) {
-                    questsAdapter.updateQuests(updatedQuests);
+                if (updatedQuests.isEmpty()) {
+                    showEmptyState("No quests available for your mood today!");
+                } else {
+                    // Hide empty state and show quest list
+                    if (emptyStateMessage != null) {
+                        emptyStateMessage.setVisibility(View.GONE);
+                    }
+                    questsRecyclerView.setVisibility(View.VISIBLE);
+
+                    if (questsAdapter != null) {
+                        questsAdapter.updateQuests(updatedQuests);
+                    }
                 }
-            }
+            }, error -> {
+
+                if (isFinishing() || isDestroyed()) return;
+
+                // Watch stays dirty, so the next resume tries again
+                showEmptyState("Could not load quests. Please try again later.");
+            }));
         }
     }
 
@@ -182,20 +214,13 @@ public class QuestsActivity extends BaseActivity {
     }
 
     // ================= COINS =================
-    private void updateCoinDisplay() {
+    // Coin text is kept up to date by BaseActivity
+    private void setupCoinCheat() {
         android.widget.TextView coinAmount = findViewById(R.id.coinAmount);
         if (coinAmount != null) {
-            try {
-                int coins = db.getCoins();
-                coinAmount.setText(String.valueOf(coins));
-            } catch (Exception e) {
-                coinAmount.setText("0");
-            }
-
             // DEV cheat mode
             coinAmount.setOnLongClickListener(v -> {
-                db.addCoins(100);
-                updateCoinDisplay();
+                db.addCoinsAsync(100, coins -> coinAmount.setText(String.valueOf(coins)));
                 Toast.makeText(this, "[DEV] +100 coins added", Toast.LENGTH_SHORT).show();
                 return true;
             });
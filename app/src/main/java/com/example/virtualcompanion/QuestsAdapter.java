@@ -43,7 +43,7 @@ public class QuestsAdapter extends RecyclerView.Adapter<QuestsAdapter.QuestViewH
         Quest quest = questsList.get(position);
 
         // Bind basic data
-        holder.questIcon.setImageResource(quest.getIconResId());
+        BitmapLoader.load(holder.questIcon, quest.getIconResId());
         holder.questTitle.setText(quest.getTitle());
         holder.questDescription.setText(quest.getDescription());
         holder.questReward.setText("+" + quest.getReward());
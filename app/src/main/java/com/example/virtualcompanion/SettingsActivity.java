@@ -20,6 +20,11 @@ public class SettingsActivity extends BaseActivity {
     private boolean maxToastShown = false;
     private boolean isEditing = false;
 
+    @Override
+    protected int getBackgroundResId() {
+        return R.drawable.bg_settings;
+    }
+
     @Override
     protected void onCreate(Bundle savedInstanceState) {
         super.onCreate(savedInstanceState);
@@ -235,6 +240,7 @@ public class SettingsActivity extends BaseActivity {
                     (btn, checked) -> {
 
                         MusicManager.setMusicEnabled(checked);
+                        SoundEffects.setEnabled(checked);
 
                         if (checked) {
                             MusicManager.startMusic(this);
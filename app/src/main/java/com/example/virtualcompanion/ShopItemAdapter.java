@@ -16,10 +16,12 @@ import androidx.recyclerview.widget.RecyclerView;
 public class ShopItemAdapter extends RecyclerView.Adapter<ShopItemAdapter.ItemViewHolder> {
 
     private final int[] shopImages;
-    private final int[] equipImages;
     private final String[] prices;
     private final OnItemClickListener listener;
 
+    // Which items are owned (null until the screen has loaded it)
+    private Wardrobe wardrobe;
+
     private int selectedPosition = -1;
     private ItemViewHolder lastSelectedHolder = null;
 
@@ -27,13 +29,20 @@ public class ShopItemAdapter extends RecyclerView.Adapter<ShopItemAdapter.ItemVi
         void onItemClick(int equipResId, int position);
     }
 
-    public ShopItemAdapter(int[] shopImages, int[] equipImages, String[] prices, OnItemClickListener listener) {
+    public ShopItemAdapter(int[] shopImages, String[] prices, OnItemClickListener listener) {
         this.shopImages = shopImages;
-        this.equipImages = equipImages;
         this.prices = prices;
         this.listener = listener;
     }
 
+    /**
+     * Show prices / owned cards for this wardrobe
+     */
+    public void setWardrobe(Wardrobe wardrobe) {
+        this.wardrobe = wardrobe;
+        notifyDataSetChanged();
+    }
+
     @NonNull
     @Override
     public ItemViewHolder onCreateViewHolder(@NonNull ViewGroup parent, int viewType) {
@@ -44,7 +53,7 @@ public class ShopItemAdapter extends RecyclerView.Adapter<ShopItemAdapter.ItemVi
 
     @Override
     public void onBindViewHolder(@NonNull ItemViewHolder holder, int position) {
-        holder.itemImage.setImageResource(shopImages[position]);
+        BitmapLoader.load(holder.itemImage, shopImages[position]);
 
         // Show price or hide container
         String price = prices[position].trim();
@@ -54,8 +63,9 @@ public class ShopItemAdapter extends RecyclerView.Adapter<ShopItemAdapter.ItemVi
             holder.priceContainer.setVisibility(View.GONE);
         } else {
             // Paid items - check if owned
-            boolean isOwned = (equipImages[position] != 0) && 
-                            InventoryManager.isOwned(holder.itemView.getContext(), equipImages[position]);
+            int equipResId = ItemCatalog.equipForThumb(shopImages[position]);
+            boolean isOwned = (equipResId != 0) &&
+                            wardrobe != null && wardrobe.isOwned(equipResId);
             
             if (isOwned) {
                 // Already owned - smaller card (no price space)
@@ -83,7 +93,7 @@ public class ShopItemAdapter extends RecyclerView.Adapter<ShopItemAdapter.ItemVi
 
             // Callback
             if (listener != null) {
-                listener.onItemClick(equipImages[position], position);
+                listener.onItemClick(ItemCatalog.equipForThumb(shopImages[position]), position);
             }
         });
 
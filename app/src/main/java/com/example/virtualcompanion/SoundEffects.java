@@ -0,0 +1,140 @@
+package com.example.virtualcompanion;
+
+import android.content.Context;
+import android.media.AudioAttributes;
+import android.media.SoundPool;
+import android.util.Log;
+
+/**
+ * SoundEffects
+ * Short UI sounds (emoji tap, purchase, quest timer) through a SoundPool,
+ * separate from MusicManager's players.
+ *
+ * - Clips are decoded once, off the main thread, when the app starts
+ * - play() is a single SoundPool call - no decoding, no allocation
+ * - At most MAX_VOICES effects sound at once (the oldest is cut off)
+ * - Follows the Settings sound toggle together with the music
+ */
+public final class SoundEffects {
+
+    private static final String TAG = "SoundEffects";
+
+    // Effects
+    public static final int SELECT = 0;
+    public static final int PURCHASE = 1;
+    public static final int TIMER_DONE = 2;
+
+    // Indexed by the effect constants
+    private static final int[] CLIPS = {
+            R.raw.sfx_select,
+            R.raw.sfx_purchase,
+            R.raw.sfx_timer_done
+    };
+
+    private static final int MAX_VOICES = 3;
+    private static final float EFFECT_VOLUME = 0.8f;
+
+    private static SoundPool soundPool;                 // set once, before the clips start loading
+    private static final int[] soundIds = new int[CLIPS.length];
+    private static final boolean[] ready = new boolean[CLIPS.length];   // guarded by SoundEffects.class
+    private static boolean loadStarted;                 // guarded by SoundEffects.class
+
+    private static volatile boolean isEnabled = true;
+
+    private SoundEffects() {
+    }
+
+    /**
+     * Decode every clip in the background (no-op after the first call)
+     */
+    public static void load(Context context) {
+        synchronized (SoundEffects.class) {
+            if (loadStarted) return;
+            loadStarted = true;
+        }
+
+        Context appContext = context.getApplicationContext();
+        Thread thread = new Thread(() -> {
+            SoundPool pool = new SoundPool.Builder()
+                    .setMaxStreams(MAX_VOICES)
+                    .setAudioAttributes(new AudioAttributes.Builder()
+                            .setUsage(AudioAttributes.USAGE_ASSISTANCE_SONIFICATION)
+                            .setContentType(AudioAttributes.CONTENT_TYPE_SONIFICATION)
+                            .build())
+                    .build();
+
+            synchronized (SoundEffects.class) {
+                soundPool = pool;
+                pool.setOnLoadCompleteListener((p, sampleId, status) -> onClipLoaded(sampleId, status));
+
+                for (int effect = 0; effect < CLIPS.length; effect++) {
+                    soundIds[effect] = pool.load(appContext, CLIPS[effect], 1);
+                }
+            }
+        }, "sfx-loader");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    private static synchronized void onClipLoaded(int sampleId, int status) {
+        for (int effect = 0; effect < CLIPS.length; effect++) {
+            if (soundIds[effect] == sampleId) {
+                ready[effect] = status == 0;
+                if (status != 0) {
+                    Log.e(TAG, "Could not load effect " + effect + " (status " + status + ")");
+                }
+            }
+        }
+    }
+
+    /**
+     * Play an effect now (skipped if sounds are off or it hasn't loaded yet)
+     */
+    public static void play(int effect) {
+        if (!isEnabled) return;
+
+        SoundPool pool;
+        int soundId;
+        synchronized (SoundEffects.class) {
+            if (!ready[effect]) return;
+            pool = soundPool;
+            soundId = soundIds[effect];
+        }
+
+        pool.play(soundId, EFFECT_VOLUME, EFFECT_VOLUME, 1, 0, 1f);
+    }
+
+    /**
+     * Enable / Disable effects
+     */
+    public static void setEnabled(boolean enabled) {
+        isEnabled = enabled;
+        Log.d(TAG, "Sound effects enabled: " + enabled);
+
+        if (!enabled) {
+            synchronized (SoundEffects.class) {
+                if (soundPool != null) {
+                    soundPool.autoPause();
+                }
+            }
+        }
+    }
+
+    public static boolean isEnabled() {
+        return isEnabled;
+    }
+
+    /**
+     * Free the decoded clips (app is terminating)
+     */
+    public static synchronized void release() {
+        if (soundPool != null) {
+            soundPool.release();
+            soundPool = null;
+        }
+        for (int effect = 0; effect < CLIPS.length; effect++) {
+            ready[effect] = false;
+        }
+        loadStarted = false;
+    }
+}
@@ -0,0 +1,180 @@
+package com.example.virtualcompanion;
+
+import android.database.sqlite.SQLiteDatabase;
+import android.database.sqlite.SQLiteDoneException;
+import android.database.sqlite.SQLiteOpenHelper;
+import android.database.sqlite.SQLiteStatement;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * StatementRegistry
+ *
+ * Precompiled SQL for the lookups every screen hits.
+ * - Scalar reads skip the Cursor (simpleQueryForLong)
+ * - Writes use executeUpdateDelete
+ * - Each thread gets its own compiled copy (a statement keeps its bind
+ *   values, so two threads must never share one)
+ * - close() releases everything; DatabaseHelper calls it when it closes
+ */
+final class StatementRegistry {
+
+    /**
+     * Every statement the registry knows about
+     */
+    enum Sql {
+        // Reads
+        GET_COINS("SELECT coins FROM user WHERE id=1"),
+        GET_QUEST_PROGRESS("SELECT progress FROM quest WHERE id=?"),
+        GET_QUEST_REWARD("SELECT reward FROM quest WHERE id=?"),
+        IS_QUEST_REWARDED("SELECT rewarded FROM quest WHERE id=?"),
+        COUNT_MOODS_FOR_DATE("SELECT COUNT(*) FROM mood WHERE date=?"),
+        GET_ITEM_PRICE("SELECT price FROM accessory WHERE item_key=?"),
+        IS_ITEM_OWNED("SELECT owned FROM accessory WHERE item_key=?"),
+        HAS_SESSION_COMPLETION("SELECT COUNT(*) FROM session_completion WHERE date=?"),
+
+        // Writes
+        SET_NAME("UPDATE user SET name=? WHERE id=1"),
+        ADD_COINS("UPDATE user SET coins = coins + ? WHERE id=1"),
+        SET_GENDER("UPDATE user SET pet_gender=? WHERE id=1"),
+        SET_QUEST_PROGRESS("UPDATE quest SET progress=? WHERE id=?"),
+        MARK_QUEST_REWARDED("UPDATE quest SET rewarded=1 WHERE id=? AND rewarded=0"),
+        GRANT_ITEM("UPDATE accessory SET owned=1 WHERE item_key=? AND owned=0"),
+        // One statement per slot: the owned item with that key ends up equipped, the rest of the type not
+        EQUIP_ITEM("UPDATE accessory SET equipped=(item_key=?) WHERE type=? AND owned=1 AND (equipped=1 OR item_key=?)"),
+        UNEQUIP_SLOT("UPDATE accessory SET equipped=0 WHERE type=? AND owned=1 AND equipped=1"),
+        // 1 changed row = the first completed session of that day
+        ADD_SESSION_COMPLETION("INSERT OR IGNORE INTO session_completion (date) VALUES (?)");
+
+        final String sql;
+
+        Sql(String sql) {
+            this.sql = sql;
+        }
+    }
+
+    /**
+     * One thread's compiled statements, valid for one open database
+     */
+    private static final class ThreadStatements {
+        final SQLiteDatabase db;
+        final int generation;
+        final SQLiteStatement[] statements = new SQLiteStatement[Sql.values().length];
+
+        ThreadStatements(SQLiteDatabase db, int generation) {
+            this.db = db;
+            this.generation = generation;
+        }
+    }
+
+    private final SQLiteOpenHelper helper;
+    private final ThreadLocal<ThreadStatements> local = new ThreadLocal<>();
+
+    // Every compiled statement (all threads), so close() can reach them
+    private final List<SQLiteStatement> compiled = new ArrayList<>();
+
+    // Bumped by close(); per-thread sets from an older generation get recompiled
+    private int generation = 0;
+
+    StatementRegistry(SQLiteOpenHelper helper) {
+        this.helper = helper;
+    }
+
+    // ================= QUERIES =================
+
+    /**
+     * Single number result (defaultValue if there is no row)
+     */
+    long queryLong(Sql sql, long defaultValue, Object... args) {
+        try {
+            return acquire(sql, args).simpleQueryForLong();
+        } catch (SQLiteDoneException e) {
+            return defaultValue;
+        }
+    }
+
+    /**
+     * UPDATE / DELETE / INSERT, returns the number of changed rows
+     */
+    int update(Sql sql, Object... args) {
+        return acquire(sql, args).executeUpdateDelete();
+    }
+
+    // ================= CLOSE =================
+
+    /**
+     * Close every compiled statement (call while no queries are running)
+     */
+    void close() {
+        synchronized (compiled) {
+            for (SQLiteStatement statement : compiled) {
+                statement.close();
+            }
+            compiled.clear();
+            generation++;
+        }
+    }
+
+    // ================= INTERNAL =================
+
+    private SQLiteStatement acquire(Sql sql, Object[] args) {
+        SQLiteDatabase db = helper.getWritableDatabase();
+
+        int currentGeneration;
+        synchronized (compiled) {
+            currentGeneration = generation;
+        }
+
+        ThreadStatements set = local.get();
+        if (set == null || set.db != db || set.generation != currentGeneration) {
+            release(set);
+            set = new ThreadStatements(db, currentGeneration);
+            local.set(set);
+        }
+
+        SQLiteStatement statement = set.statements[sql.ordinal()];
+        if (statement == null) {
+            // Compile outside the lock - compiling waits for a connection
+            statement = db.compileStatement(sql.sql);
+            synchronized (compiled) {
+                compiled.add(statement);
+            }
+            set.statements[sql.ordinal()] = statement;
+        }
+
+        statement.clearBindings();
+        for (int i = 0; i < args.length; i++) {
+            bind(statement, i + 1, args[i]);
+        }
+
+        return statement;
+    }
+
+    /**
+     * Drop a thread's old set (database was reopened)
+     */
+    private void release(ThreadStatements set) {
+        if (set == null) return;
+
+        synchronized (compiled) {
+            for (SQLiteStatement statement : set.statements) {
+                if (statement != null && compiled.remove(statement)) {
+                    statement.close();
+                }
+            }
+        }
+    }
+
+    private static void bind(SQLiteStatement statement, int index, Object value) {
+        if (value == null) {
+            statement.bindNull(index);
+        } else if (value instanceof Number) {
+            statement.bindLong(index, ((Number) value).longValue());
+        } else if (value instanceof Boolean) {
+            statement.bindLong(index, (Boolean) value ? 1 : 0);
+        } else {
+            statement.bindString(index, value.toString());
+        }
+    }
+}
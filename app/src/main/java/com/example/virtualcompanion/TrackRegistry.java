@@ -0,0 +1,174 @@
+package com.example.virtualcompanion;
+
+import android.content.Context;
+import android.content.res.AssetFileDescriptor;
+import android.content.res.Resources;
+import android.media.MediaMetadataRetriever;
+import android.util.Log;
+import android.util.SparseArray;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+
+/**
+ * TrackRegistry
+ * Everything MusicManager needs to know about its tracks, looked up once
+ * per process on a background thread (MainApplication starts it).
+ *
+ * - Whether each raw resource exists, its file descriptor / offset / length
+ *   (kept open - MediaPlayer dups it per player) and its duration
+ * - Quest tracks are marked loopable (MusicManager may play them gapless
+ *   from PcmLoopCache)
+ * - Mood -> quest track resolved up front, missing tracks falling back to
+ *   the background track, so choosing a track is a map lookup
+ */
+final class TrackRegistry {
+
+    private static final String TAG = "TrackRegistry";
+
+    /**
+     * One music track
+     */
+    static final class Track {
+        final int resId;
+        final String name;
+        final boolean exists;
+        final boolean loopable;         // may play from a PcmLoopCache loop
+        final AssetFileDescriptor afd;  // null if missing
+        final long offset;
+        final long length;
+        final int durationMs;           // 0 if unknown
+
+        private Track(int resId, String name, boolean loopable, AssetFileDescriptor afd, int durationMs) {
+            this.resId = resId;
+            this.name = name;
+            this.loopable = loopable;
+            this.exists = afd != null;
+            this.afd = afd;
+            this.offset = afd != null ? afd.getStartOffset() : 0;
+            this.length = afd != null ? afd.getLength() : 0;
+            this.durationMs = durationMs;
+        }
+    }
+
+    private static final String[] MOODS = {"happy", "sad", "angry", "anxious", "neutral"};
+
+    private static TrackRegistry instance;              // set once, before `loaded` opens
+    private static final CountDownLatch loaded = new CountDownLatch(1);
+    private static boolean loadStarted;                 // guarded by TrackRegistry.class
+
+    private final SparseArray<Track> tracks = new SparseArray<>();
+    private final Map<String, Track> questTracks = new HashMap<>();
+    private final Track background;
+
+    private TrackRegistry(Context context) {
+        background = open(context, MusicManager.TRACK_BACKGROUND, "background_music", false);
+        tracks.put(background.resId, background);
+
+        for (String mood : MOODS) {
+            int resId = MusicManager.getQuestTrackForMood(mood);
+            Track track = open(context, resId, "quest_" + mood, true);
+            tracks.put(resId, track);
+
+            if (!track.exists) {
+                Log.w(TAG, "Quest track " + track.name + " not found, using background music as fallback");
+                track = background;
+            }
+            questTracks.put(mood, track);
+        }
+    }
+
+    /**
+     * Start building the registry in the background (no-op after the first call)
+     */
+    static void load(Context context) {
+        synchronized (TrackRegistry.class) {
+            if (loadStarted) return;
+            loadStarted = true;
+        }
+
+        Context appContext = context.getApplicationContext();
+        Thread thread = new Thread(() -> {
+            long start = System.currentTimeMillis();
+            instance = new TrackRegistry(appContext);
+            loaded.countDown();
+            Log.d(TAG, "Tracks registered in " + (System.currentTimeMillis() - start) + "ms");
+        }, "track-registry");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    /**
+     * The registry, waiting for the load if it is still running.
+     * Not for the main thread - MusicManager calls this on its own thread.
+     */
+    static TrackRegistry get(Context context) {
+        load(context);
+
+        boolean interrupted = false;
+        while (true) {
+            try {
+                loaded.await();
+                break;
+            } catch (InterruptedException e) {
+                interrupted = true;
+            }
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+        return instance;
+    }
+
+    /**
+     * Track info by raw resource id (null if it isn't a music track)
+     */
+    Track track(int resId) {
+        return tracks.get(resId);
+    }
+
+    /**
+     * Track to play for a quest mood (unknown / missing -> neutral, then background)
+     */
+    int questTrackFor(String mood) {
+        Track track = mood != null ? questTracks.get(mood.toLowerCase().trim()) : null;
+        if (track == null) {
+            track = questTracks.get("neutral");
+        }
+        return track.resId;
+    }
+
+    private static Track open(Context context, int resId, String name, boolean loopable) {
+        AssetFileDescriptor afd;
+        try {
+            afd = context.getResources().openRawResourceFd(resId);
+        } catch (Resources.NotFoundException e) {
+            return new Track(resId, name, loopable, null, 0);
+        }
+        if (afd == null) {
+            // Stored compressed - MediaPlayer couldn't read it from the APK either
+            Log.w(TAG, "Track " + name + " is compressed in the APK");
+            return new Track(resId, name, loopable, null, 0);
+        }
+
+        return new Track(resId, name, loopable, afd, readDuration(afd));
+    }
+
+    private static int readDuration(AssetFileDescriptor afd) {
+        MediaMetadataRetriever retriever = new MediaMetadataRetriever();
+        try {
+            retriever.setDataSource(afd.getFileDescriptor(), afd.getStartOffset(), afd.getLength());
+            String duration = retriever.extractMetadata(MediaMetadataRetriever.METADATA_KEY_DURATION);
+            return duration != null ? Integer.parseInt(duration) : 0;
+        } catch (RuntimeException e) {
+            Log.e(TAG, "Could not read duration: " + e.getMessage());
+            return 0;
+        } finally {
+            try {
+                retriever.release();
+            } catch (Exception ignored) {
+            }
+        }
+    }
+}
@@ -0,0 +1,51 @@
+package com.example.virtualcompanion;
+
+/**
+ * UserProfile
+ * Snapshot of the user row (name, coins, gender).
+ * Immutable - DatabaseManager swaps in a new one on every change.
+ */
+public class UserProfile {
+
+    private final String name;
+    private final int coins;
+    private final String gender;
+
+    public UserProfile(String name, int coins, String gender) {
+        this.name = name;
+        this.coins = coins;
+        this.gender = gender;
+    }
+
+    // ================= GETTERS =================
+
+    public String getName() {
+        return name;
+    }
+
+    public int getCoins() {
+        return coins;
+    }
+
+    public String getGender() {
+        return gender;
+    }
+
+    public boolean isFemale() {
+        return "female".equalsIgnoreCase(gender);
+    }
+
+    // ================= COPIES =================
+
+    public UserProfile withName(String name) {
+        return new UserProfile(name, coins, gender);
+    }
+
+    public UserProfile withCoins(int coins) {
+        return new UserProfile(name, coins, gender);
+    }
+
+    public UserProfile withGender(String gender) {
+        return new UserProfile(name, coins, gender);
+    }
+}
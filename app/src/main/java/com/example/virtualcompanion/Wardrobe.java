@@ -0,0 +1,49 @@
+package com.example.virtualcompanion;
+
+/**
+ * Wardrobe
+ * One category's items as the accessory table has them - which are owned
+ * and which one is worn - read in one query (DatabaseManager.getWardrobe())
+ */
+public class Wardrobe {
+
+    private final Outfit.Slot slot;
+    private final long[] owned;     // bit i = ItemCatalog item i (this slot's items only)
+    private final int equipped;     // equip resource, 0 = nothing worn
+
+    public Wardrobe(Outfit.Slot slot, long[] owned, int equipped) {
+        this.slot = slot;
+        this.owned = owned;
+        this.equipped = equipped;
+    }
+
+    // ================= GETTERS =================
+
+    public Outfit.Slot getSlot() {
+        return slot;
+    }
+
+    /**
+     * Owned check by equip resource (an empty slot is always "owned")
+     */
+    public boolean isOwned(int equipResId) {
+        if (equipResId == 0) return true;
+
+        int index = ItemCatalog.indexOfEquip(equipResId);
+        return index >= 0 && (index >>> 6) < owned.length && (owned[index >>> 6] & (1L << index)) != 0;
+    }
+
+    /**
+     * Same category with newer ownership (e.g. PurchaseResult.getOwnedItems())
+     */
+    public Wardrobe withOwned(long[] newOwned) {
+        return new Wardrobe(slot, newOwned, equipped);
+    }
+
+    /**
+     * Worn item's equip resource (0 if the slot is empty)
+     */
+    public int getEquipped() {
+        return equipped;
+    }
+}
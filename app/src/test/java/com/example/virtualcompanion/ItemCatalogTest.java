@@ -0,0 +1,74 @@
+package com.example.virtualcompanion;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * ItemCatalog: an item's row is its bit in saved owned-item sets, so the
+ * key order is pinned here - rows may only be appended.
+ */
+public class ItemCatalogTest {
+
+    private static final String[] SAVED_ORDER = {
+            "top.flannel", "top.pink", "top.quarterzip", "top.floral", "top.plaid",
+            "top.cardigan", "top.leather", "top.dress", "top.tuxedo",
+            "bottom.flaredpants", "bottom.denimpants", "bottom.skirt", "bottom.short", "bottom.blackpants",
+            "hat.gang", "hat.flower", "hat.cowboy", "hat.beach",
+            "glasses.normal", "glasses.shades", "glasses.maloi", "glasses.heart"
+    };
+
+    @Test
+    public void keyToBitOrderIsFixed() {
+        assertTrue(ItemCatalog.size() >= SAVED_ORDER.length);
+        for (int i = 0; i < SAVED_ORDER.length; i++) {
+            assertEquals(SAVED_ORDER[i], ItemCatalog.keyAt(i));
+            assertEquals(i, ItemCatalog.indexOfKey(SAVED_ORDER[i]));
+        }
+    }
+
+    @Test
+    public void lookupsAgree() {
+        for (int i = 0; i < ItemCatalog.size(); i++) {
+            int equip = ItemCatalog.equipAt(i);
+            assertEquals(i, ItemCatalog.indexOfEquip(equip));
+            assertEquals(ItemCatalog.keyAt(i), ItemCatalog.keyForEquip(equip));
+            assertEquals(equip, ItemCatalog.equipForKey(ItemCatalog.keyAt(i)));
+            assertEquals(equip, ItemCatalog.equipForThumb(ItemCatalog.thumbForEquip(equip)));
+        }
+        assertEquals(-1, ItemCatalog.indexOfKey("top.unknown"));
+        assertEquals(0, ItemCatalog.equipForThumb(R.drawable.ic_cancel));
+    }
+
+    @Test
+    public void genderListsShareUnisexItems() {
+        int[] girl = ItemCatalog.itemsFor("female");
+        int[] boy = ItemCatalog.itemsFor("male");
+        int[] unisex = ItemCatalog.itemsFor(null);
+
+        assertEquals(ItemCatalog.size() + unisex.length, girl.length + boy.length);
+        assertTrue(contains(girl, ItemCatalog.indexOfKey("top.dress")));
+        assertFalse(contains(boy, ItemCatalog.indexOfKey("top.dress")));
+        for (int item : unisex) {
+            assertTrue(contains(girl, item));
+            assertTrue(contains(boy, item));
+        }
+    }
+
+    @Test
+    public void shopListsThePetsItemsFirst() {
+        ItemCatalog.Shop shop = ItemCatalog.shop(Outfit.Slot.TOP, "female");
+
+        assertEquals(R.drawable.ic_cancel, shop.shopImages[0]);
+        assertEquals(R.drawable.top_girl_pink, shop.shopImages[1]);
+        assertEquals(R.drawable.top_boy_flannel, shop.shopImages[5]);
+        assertEquals(10, shop.shopImages.length);
+    }
+
+    private static boolean contains(int[] items, int item) {
+        for (int i : items) {
+            if (i == item) return true;
+        }
+        return false;
+    }
+}
@@ -0,0 +1,131 @@
+package com.example.virtualcompanion;
+
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import static org.junit.Assert.*;
+
+/**
+ * app_state.bin: every value type survives a write / read, the header and
+ * type tags stay where old files have them, and the schema 1 -> 2 step
+ * turns outfit drawable ids into ItemCatalog keys.
+ */
+public class KeyValueStoreFormatTest {
+
+    @Test
+    public void everyTypeRoundTrips() throws IOException {
+        Map<String, Object> state = new HashMap<>();
+        state.put("int", -7);
+        state.put("long", 1L << 40);
+        state.put("boolean", true);
+        state.put("string", "Echo ❤");
+        state.put("array", new long[]{0L, -1L, 42L});
+
+        Map<String, Object> read = new HashMap<>();
+        int version = KeyValueStore.readState(in(bytes(KeyValueStore.SCHEMA_VERSION, state)), read);
+
+        assertEquals(KeyValueStore.SCHEMA_VERSION, version);
+        assertEquals(state.keySet(), read.keySet());
+        assertEquals(-7, read.get("int"));
+        assertEquals(1L << 40, read.get("long"));
+        assertEquals(true, read.get("boolean"));
+        assertEquals("Echo ❤", read.get("string"));
+        assertArrayEquals(new long[]{0L, -1L, 42L}, (long[]) read.get("array"));
+    }
+
+    @Test
+    public void headerAndTagsAreFixed() throws IOException {
+        Map<String, Object> state = new LinkedHashMap<>();
+        state.put("a", 5);
+        state.put("b", "x");
+
+        DataInputStream in = in(bytes(1, state));
+        assertEquals(0x4B565331, in.readInt());     // "KVS1"
+        assertEquals(1, in.readInt());              // schema version
+        assertEquals(2, in.readInt());              // entries
+
+        assertEquals("a", in.readUTF());
+        assertEquals(1, in.readByte());             // TYPE_INT
+        assertEquals(5, in.readInt());
+
+        assertEquals("b", in.readUTF());
+        assertEquals(4, in.readByte());             // TYPE_STRING
+        assertEquals("x", in.readUTF());
+
+        assertEquals(-1, in.read());
+    }
+
+    @Test(expected = IOException.class)
+    public void badMagicIsRejected() throws IOException {
+        byte[] data = bytes(KeyValueStore.SCHEMA_VERSION, new HashMap<>());
+        data[0] ^= 1;
+        KeyValueStore.readState(in(data), new HashMap<>());
+    }
+
+    @Test(expected = IOException.class)
+    public void unknownTagIsRejected() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        DataOutputStream data = new DataOutputStream(out);
+        data.writeInt(KeyValueStore.FILE_MAGIC);
+        data.writeInt(KeyValueStore.SCHEMA_VERSION);
+        data.writeInt(1);
+        data.writeUTF("key");
+        data.writeByte(99);
+
+        KeyValueStore.readState(in(out.toByteArray()), new HashMap<>());
+    }
+
+    @Test(expected = IOException.class)
+    public void truncatedFileIsRejected() throws IOException {
+        Map<String, Object> state = new HashMap<>();
+        state.put("array", new long[]{1L, 2L});
+        byte[] data = bytes(KeyValueStore.SCHEMA_VERSION, state);
+
+        byte[] cut = new byte[data.length - 4];
+        System.arraycopy(data, 0, cut, 0, cut.length);
+        KeyValueStore.readState(in(cut), new HashMap<>());
+    }
+
+    @Test
+    public void schemaOneOutfitIdsBecomeKeys() throws IOException {
+        int top = ItemCatalog.equipAt(0);
+        int hat = ItemCatalog.equipAt(ItemCatalog.indexOfKey("hat.cowboy"));
+
+        Map<String, Object> v1 = new HashMap<>();
+        v1.put(KeyValueStore.KEY_OUTFIT_TOP, top);
+        v1.put(KeyValueStore.KEY_OUTFIT_HAT, hat);
+        v1.put(KeyValueStore.KEY_OUTFIT_BOTTOM, 0);             // empty slot
+        v1.put(KeyValueStore.KEY_OUTFIT_GLASSES, "glasses.heart"); // already a key
+        v1.put(KeyValueStore.KEY_PET_NAME, "Echo");
+
+        Map<String, Object> state = new HashMap<>();
+        assertEquals(1, KeyValueStore.readState(in(bytes(1, v1)), state));
+        KeyValueStore.outfitIdsToKeys(state);
+
+        assertEquals(ItemCatalog.keyAt(0), state.get(KeyValueStore.KEY_OUTFIT_TOP));
+        assertEquals("hat.cowboy", state.get(KeyValueStore.KEY_OUTFIT_HAT));
+        assertFalse(state.containsKey(KeyValueStore.KEY_OUTFIT_BOTTOM));
+        assertEquals("glasses.heart", state.get(KeyValueStore.KEY_OUTFIT_GLASSES));
+        assertEquals("Echo", state.get(KeyValueStore.KEY_PET_NAME));
+    }
+
+    private static byte[] bytes(int version, Map<String, Object> state) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        DataOutputStream data = new DataOutputStream(out);
+        KeyValueStore.writeState(data, version, state);
+        data.flush();
+        return out.toByteArray();
+    }
+
+    private static DataInputStream in(byte[] data) {
+        return new DataInputStream(new ByteArrayInputStream(data));
+    }
+}
@@ -0,0 +1,111 @@
+package com.example.virtualcompanion;
+
+import org.junit.Test;
+
+import java.util.HashSet;
+import java.util.Set;
+
+import static org.junit.Assert.*;
+
+/**
+ * QuestSampler picks: repeatable with a seed, no repeats within a day,
+ * history restore / reset, and pools smaller than a session.
+ */
+public class QuestSamplerTest {
+
+    private static final int[] POOL = {3, 7, 11, 15, 19, 23, 27, 31, 35, 39};
+
+    @Test
+    public void sameSeedGivesSamePicks() {
+        QuestSampler a = new QuestSampler(POOL, 42L);
+        QuestSampler b = new QuestSampler(POOL, 42L);
+
+        for (int round = 0; round < 3; round++) {
+            assertArrayEquals(a.draw(3), b.draw(3));
+        }
+    }
+
+    @Test
+    public void noRepeatsUntilPoolIsExhausted() {
+        QuestSampler sampler = new QuestSampler(POOL, 7L);
+        Set<Integer> seen = new HashSet<>();
+
+        while (sampler.getRemainingCount() > 0) {
+            for (int id : sampler.draw(3)) {
+                assertTrue("repeated " + id, seen.add(id));
+                assertTrue(sampler.isUsed(id));
+            }
+        }
+
+        assertEquals(POOL.length, seen.size());
+        assertEquals(0, sampler.draw(3).length);
+    }
+
+    @Test
+    public void restoreUsedExcludesSavedHistory() {
+        QuestSampler sampler = new QuestSampler(POOL, 1L);
+        int[] history = {7, 23, 39};
+
+        sampler.restoreUsed(history);
+        assertEquals(POOL.length - history.length, sampler.getRemainingCount());
+
+        Set<Integer> drawn = toSet(sampler.draw(POOL.length));
+        assertEquals(POOL.length - history.length, drawn.size());
+        for (int id : history) {
+            assertTrue(sampler.isUsed(id));
+            assertFalse("restored id drawn again: " + id, drawn.contains(id));
+        }
+    }
+
+    @Test
+    public void restoreUsedIgnoresUnknownAndDuplicateIds() {
+        QuestSampler sampler = new QuestSampler(POOL, 1L);
+
+        sampler.restoreUsed(new int[]{11, 11, 1000});
+
+        assertEquals(POOL.length - 1, sampler.getRemainingCount());
+    }
+
+    @Test
+    public void resetMakesEveryQuestAvailableAgain() {
+        QuestSampler sampler = new QuestSampler(POOL, 5L);
+        sampler.restoreUsed(new int[]{3, 15});
+        sampler.draw(4);
+
+        sampler.reset();
+
+        assertEquals(POOL.length, sampler.getRemainingCount());
+        for (int id : POOL) {
+            assertFalse(sampler.isUsed(id));
+        }
+        assertEquals(toSet(POOL), toSet(sampler.draw(POOL.length)));
+    }
+
+    @Test
+    public void smallPoolGivesWhatItHas() {
+        int[] small = {4, 8};
+        QuestSampler sampler = new QuestSampler(small, 9L);
+
+        int[] picked = sampler.draw(5);
+
+        assertEquals(2, picked.length);
+        assertEquals(toSet(small), toSet(picked));
+        assertEquals(0, sampler.getRemainingCount());
+        assertEquals(2, sampler.getPoolSize());
+    }
+
+    @Test
+    public void emptyPoolDrawsNothing() {
+        QuestSampler sampler = new QuestSampler(new int[0], 0L);
+
+        assertEquals(0, sampler.draw(5).length);
+    }
+
+    private static Set<Integer> toSet(int[] ids) {
+        Set<Integer> set = new HashSet<>();
+        for (int id : ids) {
+            set.add(id);
+        }
+        return set;
+    }
+}